@@ -0,0 +1,65 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Uint256;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FunctionEncoder.encode for the calls ContractInteraction makes: the getValue() view call and the setValue(uint256)
+ * transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbiEncodeBenchmark {
+
+    @Param({"getValue", "setValue"})
+    public String functionName;
+
+    private Function function;
+
+    @Setup
+    public void setUp() {
+        // Built the same way as in ContractInteraction.main
+        if (functionName.equals("getValue")) {
+            List<TypeReference<?>> outputParameters = Collections.singletonList(new TypeReference<Uint256>() {});
+            function = new Function(functionName, Collections.emptyList(), outputParameters);
+        } else {
+            List<Type> inputParameters = Collections.singletonList(new Uint256(BigInteger.valueOf(6)));
+            function = new Function(functionName, inputParameters, Collections.emptyList());
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return FunctionEncoder.encode(function);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String encodeContended() {
+        return FunctionEncoder.encode(function);
+    }
+}
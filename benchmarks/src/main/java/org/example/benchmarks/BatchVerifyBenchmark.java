@@ -0,0 +1,73 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifying a batch of signatures one by one with Signature against BatchSignatureVerifier's fork-join fan-out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchVerifyBenchmark {
+
+    private static final MethodHandle SIGN_PREFIXED_MESSAGE = Samples.findStatic("Signature", "signPrefixedMessage",
+            String.class, String.class, String.class);
+    private static final MethodHandle IS_SIGNATURE_VALID = Samples.findStatic("Signature", "isSignatureValid",
+            Boolean.class, String.class, String.class, String.class);
+    private static final MethodHandle VERIFY_ALL = Samples.findStatic("BatchSignatureVerifier", "verifyAll",
+            boolean[].class, List.class);
+
+    @Param({"64", "1024"})
+    public int batchSize;
+
+    private String[] messages;
+    private String[] signatures;
+    // BatchSignatureVerifier.SignatureCheck instances
+    private List<Object> checks;
+
+    @Setup
+    public void setUp() throws Throwable {
+        messages = new String[batchSize];
+        signatures = new String[batchSize];
+        checks = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            messages[i] = Samples.message(36, i);
+            signatures[i] = (String) SIGN_PREFIXED_MESSAGE.invokeExact(Samples.PRIVATE_KEY_HEX, messages[i]);
+            checks.add(Samples.newInstance("BatchSignatureVerifier$SignatureCheck",
+                    new Class<?>[]{String.class, String.class, String.class},
+                    signatures[i], messages[i], Samples.WALLET_ADDRESS));
+        }
+    }
+
+    @Benchmark
+    public boolean[] sequential() throws Throwable {
+        boolean[] results = new boolean[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            results[i] = (Boolean) IS_SIGNATURE_VALID.invokeExact(signatures[i], messages[i], Samples.WALLET_ADDRESS);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public boolean[] verifyAll() throws Throwable {
+        return (boolean[]) VERIFY_ALL.invokeExact(checks);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks from an IDE with the GC profiler on, so allocation rates (gc.alloc.rate.norm, in bytes per
+ * operation) are reported next to the times. From the command line the same is "java -jar target/benchmarks.jar -prof gc".
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        // Optionally pass a regular expression selecting benchmarks, e.g. "SignatureBenchmark" or "Rpc.*batched"
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
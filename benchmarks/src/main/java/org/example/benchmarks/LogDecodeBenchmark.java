@@ -0,0 +1,122 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a ValueUpdated log: the generic path of EventListener.valueUpdated against EventLogDecoder.
+ * State is per thread because EventLogDecoder hands each thread its own reusable holder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogDecodeBenchmark {
+
+    private static final Event VALUE_UPDATED = (Event) Samples.staticField("EventListener", "VALUE_UPDATED");
+
+    private static final Class<?> HANDLER = Samples.type("EventLogDecoder$Handler");
+    private static final Class<?> DECODED_EVENT = Samples.type("EventLogDecoder$DecodedEvent");
+    private static final MethodHandle REGISTER = Samples.findVirtual("EventLogDecoder", "register", void.class, Event.class, HANDLER)
+            .asType(MethodType.methodType(void.class, Object.class, Event.class, Object.class));
+    private static final MethodHandle DECODE = Samples.findVirtual("EventLogDecoder", "decode", boolean.class, Log.class);
+    private static final MethodHandle INDEXED_ADDRESS = Samples.findVirtual("EventLogDecoder$DecodedEvent", "indexedAddress",
+            String.class, int.class);
+    private static final MethodHandle UINT = Samples.findVirtual("EventLogDecoder$DecodedEvent", "uint", BigInteger.class, int.class);
+
+    private Log log;
+    private Object decoder;
+    private long checksum;
+
+    @Setup
+    public void setUp() throws Throwable {
+        log = new Log();
+        log.setTopics(Arrays.asList(EventEncoder.encode(VALUE_UPDATED),
+                "0x0000000000000000000000004dc2739b3de594754066357e54bfce70167b3f99"));
+        log.setData("0x" + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(5), 64)
+                + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(6), 64));
+
+        decoder = Samples.newInstance("EventLogDecoder", new Class<?>[0]);
+        REGISTER.invokeExact(decoder, VALUE_UPDATED, handler());
+    }
+
+    /**
+     * The body of EventListener's log callback and valueUpdated, without the printing.
+     */
+    @Benchmark
+    public long genericDecode() {
+        String eventSignature = log.getTopics().get(0);
+        if (!eventSignature.equals(EventEncoder.encode(VALUE_UPDATED))) {
+            return 0;
+        }
+        String updater = "0x" + log.getTopics().get(1).substring(26);
+        List<Type> decoded = FunctionReturnDecoder.decode(log.getData(), VALUE_UPDATED.getNonIndexedParameters());
+        int oldValue = ((BigInteger) decoded.get(0).getValue()).intValue();
+        int newValue = ((BigInteger) decoded.get(1).getValue()).intValue();
+        return updater.length() + oldValue + newValue;
+    }
+
+    @Benchmark
+    public long eventLogDecoder() throws Throwable {
+        boolean decoded = (boolean) DECODE.invokeExact(decoder, log);
+        return decoded ? checksum : 0;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long genericDecodeContended() {
+        return genericDecode();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long eventLogDecoderContended() throws Throwable {
+        return eventLogDecoder();
+    }
+
+    /**
+     * Reads the decoded values, as EventListener.valueUpdated does.
+     */
+    public void onValueUpdated(Object event) throws Throwable {
+        String updater = (String) INDEXED_ADDRESS.invokeExact(event, 0);
+        BigInteger oldValue = (BigInteger) UINT.invokeExact(event, 0);
+        BigInteger newValue = (BigInteger) UINT.invokeExact(event, 1);
+        checksum = updater.length() + oldValue.intValue() + newValue.intValue();
+    }
+
+    // A real EventLogDecoder.Handler class (instead of a reflective proxy) that calls onValueUpdated on this state
+    private Object handler() throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle target = lookup.findVirtual(LogDecodeBenchmark.class, "onValueUpdated",
+                MethodType.methodType(void.class, Object.class));
+        MethodType onEvent = MethodType.methodType(void.class, DECODED_EVENT);
+        return LambdaMetafactory.metafactory(lookup, "onEvent", MethodType.methodType(HANDLER, LogDecodeBenchmark.class),
+                onEvent, target, onEvent).getTarget().invoke(this);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.http.HttpService;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The getValue() eth_call of ContractInteraction.callContract against an in-process {@link StubNode}: sent one by one,
+ * through Metrics.instrument with metrics off, through JsonRpcBatcher, and through BlockScopedCache.
+ * Times are per call; delayMs simulates the round trip to a remote node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RpcBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    // The test contract from ContractInteraction
+    private static final String CONTRACT_ADDRESS = "0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d";
+
+    private static final MethodHandle INSTRUMENT = Samples.findStatic("Metrics", "instrument",
+            Web3jService.class, Web3jService.class);
+    private static final MethodHandle BATCHER_CALL = Samples.findVirtual("JsonRpcBatcher", "call",
+            CompletableFuture.class, Transaction.class, DefaultBlockParameter.class);
+    private static final MethodHandle BATCHER_FLUSH = Samples.findVirtual("JsonRpcBatcher", "flush", void.class);
+    private static final MethodHandle CACHE_CALL = Samples.findVirtual("BlockScopedCache", "call",
+            String.class, String.class, String.class, String.class);
+
+    @Param({"0", "2"})
+    public long delayMs;
+
+    private final DefaultBlockParameter latest = DefaultBlockParameterName.LATEST;
+
+    private StubNode node;
+    private Web3j web3j;
+    private Web3j instrumentedWeb3j;
+    private Object batcher;
+    private Object cache;
+    private String encodedFunction;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() throws Throwable {
+        node = new StubNode(delayMs);
+        HttpService service = new HttpService(node.getUrl());
+        web3j = Web3j.build(service);
+        instrumentedWeb3j = Web3j.build((Web3jService) INSTRUMENT.invokeExact((Web3jService) service));
+        batcher = Samples.newInstance("JsonRpcBatcher", new Class<?>[]{Web3jService.class, int.class, int.class},
+                service, BATCH_SIZE, 4);
+        cache = Samples.newInstance("BlockScopedCache", new Class<?>[]{Web3j.class, long.class}, web3j, 16L << 20);
+
+        List<TypeReference<?>> outputParameters = Collections.singletonList(new TypeReference<Uint256>() {});
+        encodedFunction = FunctionEncoder.encode(new Function("getValue", Collections.emptyList(), outputParameters));
+        transaction = Transaction.createEthCallTransaction(Samples.WALLET_ADDRESS, CONTRACT_ADDRESS, encodedFunction);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ((AutoCloseable) cache).close();
+        ((AutoCloseable) batcher).close();
+        web3j.shutdown();
+        node.close();
+    }
+
+    @Benchmark
+    public String ethCall() throws Exception {
+        return web3j.ethCall(transaction, latest).send().getValue();
+    }
+
+    @Benchmark
+    public String ethCallInstrumented() throws Exception {
+        return instrumentedWeb3j.ethCall(transaction, latest).send().getValue();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String ethCallConcurrent() throws Exception {
+        return web3j.ethCall(transaction, latest).send().getValue();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object batchedEthCall() throws Throwable {
+        CompletableFuture<?>[] results = new CompletableFuture<?>[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            results[i] = (CompletableFuture<?>) BATCHER_CALL.invokeExact(batcher, transaction, latest);
+        }
+        BATCHER_FLUSH.invokeExact(batcher);
+        return CompletableFuture.allOf(results).thenApply(done -> results[BATCH_SIZE - 1].join()).join();
+    }
+
+    @Benchmark
+    public String cachedEthCall() throws Throwable {
+        return (String) CACHE_CALL.invokeExact(cache, Samples.WALLET_ADDRESS, CONTRACT_ADDRESS, encodedFunction);
+    }
+}
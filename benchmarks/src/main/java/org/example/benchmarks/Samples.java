@@ -0,0 +1,88 @@
+package org.example.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Reaches the sample classes. They live in the default package, which cannot be imported from a named package
+ * (and JMH refuses benchmarks in the default package), so they are looked up by name. Handles kept in static final
+ * fields are constants to the JIT, so calling through them costs about the same as a direct call.
+ */
+final class Samples {
+
+    // The key pair used in Signature.main
+    static final String PRIVATE_KEY_HEX = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+    static final String WALLET_ADDRESS = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+
+    private Samples() {
+    }
+
+    static Class<?> type(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Sample class " + className + " not found; run mvn install in the project root first", e);
+        }
+    }
+
+    /**
+     * @param className      The sample class, e.g. "Signature".
+     * @param name           The static method name.
+     * @param returnType     The declared return type.
+     * @param parameterTypes The declared parameter types.
+     * @return A handle of exactly the declared type.
+     */
+    static MethodHandle findStatic(String className, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup().findStatic(type(className), name, MethodType.methodType(returnType, parameterTypes));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Sample method " + className + "." + name + " not found", e);
+        }
+    }
+
+    /**
+     * @return A handle whose receiver parameter is typed as Object, so it can be invoked exactly from here.
+     */
+    static MethodHandle findVirtual(String className, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findVirtual(type(className), name, MethodType.methodType(returnType, parameterTypes));
+            return handle.asType(handle.type().changeParameterType(0, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Sample method " + className + "." + name + " not found", e);
+        }
+    }
+
+    /**
+     * Creates an instance of a sample class through its public constructor.
+     */
+    static Object newInstance(String className, Class<?>[] parameterTypes, Object... arguments) {
+        try {
+            return type(className).getConstructor(parameterTypes).newInstance(arguments);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create sample " + className, e);
+        }
+    }
+
+    /**
+     * Reads a public static field of a sample class.
+     */
+    static Object staticField(String className, String name) {
+        try {
+            return type(className).getField(name).get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Sample field " + className + "." + name + " not found", e);
+        }
+    }
+
+    /**
+     * @return A printable ASCII message of the given length.
+     */
+    static String message(int length, int seed) {
+        StringBuilder message = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            message.append((char) ('a' + (i + seed) % 26));
+        }
+        return message.toString();
+    }
+}
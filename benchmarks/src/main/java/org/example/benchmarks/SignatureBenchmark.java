@@ -0,0 +1,93 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and signature recovery: Signature (the web3j path) against FastSignature (the low-allocation path).
+ * The *Contended variants run on all cores to show how the paths scale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureBenchmark {
+
+    private static final MethodHandle SIGN_PREFIXED_MESSAGE = Samples.findStatic("Signature", "signPrefixedMessage",
+            String.class, String.class, String.class);
+    private static final MethodHandle IS_SIGNATURE_VALID = Samples.findStatic("Signature", "isSignatureValid",
+            Boolean.class, String.class, String.class, String.class);
+    private static final MethodHandle FAST_IS_SIGNATURE_VALID = Samples.findStatic("FastSignature", "isSignatureValid",
+            boolean.class, String.class, String.class, String.class);
+    private static final MethodHandle PREFIXED_MESSAGE_HASH = Samples.findStatic("FastSignature", "prefixedMessageHash",
+            byte[].class, String.class);
+
+    // 36 is the UUID login nonce used in Signature.main
+    @Param({"36", "1024"})
+    public int messageLength;
+
+    private String message;
+    private String signature;
+
+    @Setup
+    public void setUp() throws Throwable {
+        message = Samples.message(messageLength, 0);
+        signature = (String) SIGN_PREFIXED_MESSAGE.invokeExact(Samples.PRIVATE_KEY_HEX, message);
+        if (!(boolean) FAST_IS_SIGNATURE_VALID.invokeExact(signature, message, Samples.WALLET_ADDRESS)) {
+            throw new IllegalStateException("The benchmark signature does not verify");
+        }
+    }
+
+    @Benchmark
+    public String signPrefixedMessage() throws Throwable {
+        return (String) SIGN_PREFIXED_MESSAGE.invokeExact(Samples.PRIVATE_KEY_HEX, message);
+    }
+
+    @Benchmark
+    public Boolean isSignatureValid() throws Throwable {
+        return (Boolean) IS_SIGNATURE_VALID.invokeExact(signature, message, Samples.WALLET_ADDRESS);
+    }
+
+    @Benchmark
+    public boolean fastIsSignatureValid() throws Throwable {
+        return (boolean) FAST_IS_SIGNATURE_VALID.invokeExact(signature, message, Samples.WALLET_ADDRESS);
+    }
+
+    @Benchmark
+    public byte[] prefixedMessageHash() throws Throwable {
+        return (byte[]) PREFIXED_MESSAGE_HASH.invokeExact(message);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String signPrefixedMessageContended() throws Throwable {
+        return (String) SIGN_PREFIXED_MESSAGE.invokeExact(Samples.PRIVATE_KEY_HEX, message);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Boolean isSignatureValidContended() throws Throwable {
+        return (Boolean) IS_SIGNATURE_VALID.invokeExact(signature, message, Samples.WALLET_ADDRESS);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean fastIsSignatureValidContended() throws Throwable {
+        return (boolean) FAST_IS_SIGNATURE_VALID.invokeExact(signature, message, Samples.WALLET_ADDRESS);
+    }
+}
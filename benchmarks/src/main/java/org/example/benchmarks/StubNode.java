@@ -0,0 +1,118 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An in-process JSON-RPC node with canned answers, so RPC paths can be benchmarked offline and without network noise.
+ * Single requests and batches are supported; every request of a batch is answered after one shared delay.
+ */
+class StubNode implements AutoCloseable {
+
+    // getValue() returning 6, as the test contract in ContractInteraction would
+    static final String CALL_RESULT = "0x0000000000000000000000000000000000000000000000000000000000000006";
+
+    static {
+        // Without TCP_NODELAY the JDK server's separate header and body writes stall on delayed ACKs (about 40 ms)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long delayMs;
+
+    /**
+     * @param delayMs A simulated round-trip time added to every HTTP request.
+     */
+    StubNode(long delayMs) throws IOException {
+        this.delayMs = delayMs;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-node");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readTree(body);
+        }
+        JsonNode response;
+        if (request.isArray()) {
+            ArrayNode responses = objectMapper.createArrayNode();
+            request.forEach(single -> responses.add(answer(single)));
+            response = responses;
+        } else {
+            response = answer(request);
+        }
+
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] bytes = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private ObjectNode answer(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        switch (request.path("method").asText()) {
+            case "eth_call":
+                response.put("result", CALL_RESULT);
+                break;
+            case "eth_getBalance":
+                // 1 ETH
+                response.put("result", "0xde0b6b3a7640000");
+                break;
+            case "eth_blockNumber":
+                response.put("result", "0x100");
+                break;
+            case "eth_chainId":
+                response.put("result", "0x1");
+                break;
+            default:
+                ObjectNode error = response.putObject("error");
+                error.put("code", -32601);
+                error.put("message", "the method " + request.path("method").asText() + " does not exist/is not available");
+        }
+        return response;
+    }
+}
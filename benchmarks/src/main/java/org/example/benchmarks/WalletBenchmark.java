@@ -0,0 +1,55 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Address derivation from a private key, and bulk key pair generation with BulkWalletGenerator.
+ * Times are per wallet, so the single-key and bulk results compare directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletBenchmark {
+
+    private static final int BULK_COUNT = 1_000;
+
+    private static final MethodHandle GET_WALLET_ADDRESS = Samples.findStatic("Wallet", "getWalletAddressFromPrivateKeyHex",
+            String.class, String.class);
+    private static final MethodHandle GENERATE = Samples.findStatic("BulkWalletGenerator", "generate",
+            Samples.type("BulkWalletGenerator$GeneratedWallets"), int.class)
+            .asType(MethodType.methodType(Object.class, int.class));
+
+    @Benchmark
+    public String getWalletAddressFromPrivateKeyHex() throws Throwable {
+        return (String) GET_WALLET_ADDRESS.invokeExact(Samples.PRIVATE_KEY_HEX);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String getWalletAddressFromPrivateKeyHexContended() throws Throwable {
+        return (String) GET_WALLET_ADDRESS.invokeExact(Samples.PRIVATE_KEY_HEX);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_COUNT)
+    public Object bulkGenerate() throws Throwable {
+        return (Object) GENERATE.invokeExact(BULK_COUNT);
+    }
+}
@@ -0,0 +1,215 @@
+import org.apache.commons.lang3.StringUtils;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BatchSignatureVerifier {
+
+    // Below this many checks a task verifies its slice directly instead of splitting further
+    private static final int SEQUENTIAL_THRESHOLD = 32;
+    private static final int ADDRESS_HEX_LENGTH = CommonConstant.ADDRESS_PREFIX.length() + CommonConstant.ADDRESS_BYTE_LENGTH * 2;
+
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * A single (signature, message, address) triple to be verified.
+     */
+    public static class SignatureCheck {
+        private final String signature;
+        private final String message;
+        private final String walletAddress;
+
+        public SignatureCheck(String signature, String message, String walletAddress) {
+            this.signature = signature;
+            this.message = message;
+            this.walletAddress = walletAddress;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getWalletAddress() {
+            return walletAddress;
+        }
+    }
+
+    /**
+     * Verifies many signatures in parallel on a shared fork-join pool sized to the number of cores.
+     *
+     * @param checks The signature checks to verify.
+     * @return       An array where element i is true if checks.get(i) is a valid signature
+     *               for its message and wallet address; false otherwise, also when verifying it threw.
+     */
+    public static boolean[] verifyAll(List<SignatureCheck> checks) {
+        return verifyAll(checks, DEFAULT_POOL);
+    }
+
+    /**
+     * Verifies many signatures in parallel on the given fork-join pool.
+     *
+     * @param checks The signature checks to verify.
+     * @param pool   The fork-join pool the verification work is spread across.
+     * @return       An array where element i is true if checks.get(i) is a valid signature
+     *               for its message and wallet address; false otherwise, also when verifying it threw.
+     */
+    public static boolean[] verifyAll(List<SignatureCheck> checks, ForkJoinPool pool) {
+        boolean[] results = new boolean[checks.size()];
+        if (!checks.isEmpty()) {
+            pool.invoke(new VerifyTask(checks, results, 0, checks.size()));
+        }
+        return results;
+    }
+
+    /**
+     * Verifies a single signature, comparing the recovered address as raw bytes.
+     * Gives the same result as {@link Signature#isSignatureValid(String, String, String)} on a UTF-8 platform:
+     * the message is always encoded as UTF-8, where the single-call path uses the platform default charset.
+     * The wallet address must start with "0x", as the single-call path's string comparison requires.
+     *
+     * @param check The signature check to verify.
+     * @return      True if the signature is valid and corresponds to the wallet address; false otherwise.
+     */
+    public static boolean verify(SignatureCheck check) {
+        if (StringUtils.isAnyBlank(check.getSignature(), check.getMessage(), check.getWalletAddress())) {
+            return false;
+        }
+
+        if (!isPrefixedAddress(check.getWalletAddress())) {
+            return false;
+        }
+        // Numeric only strips a lowercase "0x", so the prefix is cut off here
+        byte[] expectedAddress = Numeric.hexStringToByteArray(
+                check.getWalletAddress().substring(CommonConstant.ADDRESS_PREFIX.length()));
+
+        byte[] signatureBytes = Numeric.hexStringToByteArray(check.getSignature());
+        if (signatureBytes.length != CommonConstant.SIGNATURE_BYTE_LENGTH) {
+            return false;
+        }
+
+        byte v = signatureBytes[CommonConstant.V_INDEX];
+        if (v < CommonConstant.V_LOWER_BOUND) {
+            v += CommonConstant.V_BASE;
+        }
+        Sign.SignatureData signatureData = new Sign.SignatureData(
+                v,
+                Arrays.copyOfRange(signatureBytes, CommonConstant.R_START_INDEX, CommonConstant.R_END_INDEX),
+                Arrays.copyOfRange(signatureBytes, CommonConstant.S_START_INDEX, CommonConstant.S_END_INDEX)
+        );
+        BigInteger publicKey;
+        try {
+            publicKey = Sign.signedPrefixedMessageToKey(check.getMessage().getBytes(StandardCharsets.UTF_8), signatureData);
+        } catch (SignatureException e) {
+            return false;
+        }
+        // Hash the raw 64-byte public key and compare the last 20 bytes, skipping the hex address string
+        byte[] recoveredAddress = Keys.getAddress(Numeric.toBytesPadded(publicKey, CommonConstant.PUBLIC_KEY_BYTE_LENGTH));
+        return Arrays.equals(recoveredAddress, expectedAddress);
+    }
+
+    /**
+     * @return True if the value is "0x" followed by exactly 40 hex digits, the only form the recovered
+     * address string can equal.
+     */
+    private static boolean isPrefixedAddress(String value) {
+        if (value.length() != ADDRESS_HEX_LENGTH || value.charAt(0) != '0'
+                || (value.charAt(1) != 'x' && value.charAt(1) != 'X')) {
+            return false;
+        }
+        for (int i = CommonConstant.ADDRESS_PREFIX.length(); i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f') && !(c >= 'A' && c <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class VerifyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<SignatureCheck> checks;
+        private final boolean[] results;
+        private final int from;
+        private final int to;
+
+        VerifyTask(List<SignatureCheck> checks, boolean[] results, int from, int to) {
+            this.checks = checks;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        results[i] = verify(checks.get(i));
+                    } catch (RuntimeException e) {
+                        // web3j rejects some malformed signatures (e.g. an r that is not a curve point) by throwing;
+                        // one of them must not cost the rest of the batch its results
+                        results[i] = false;
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new VerifyTask(checks, results, from, middle), new VerifyTask(checks, results, middle, to));
+        }
+    }
+
+    public static void main(String[] args) {
+        // Define the private key and wallet address, change to your own
+        String privateKeyHex = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+        String walletAddress = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+
+        // Build a batch of signed login challenges
+        int batchSize = 2000;
+        List<SignatureCheck> checks = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String message = "login-challenge-" + i;
+            checks.add(new SignatureCheck(Signature.signPrefixedMessage(privateKeyHex, message), message, walletAddress));
+        }
+
+        // Verify one at a time with the existing single-call path
+        long start = System.nanoTime();
+        int validSingle = 0;
+        for (SignatureCheck check : checks) {
+            if (Signature.isSignatureValid(check.getSignature(), check.getMessage(), check.getWalletAddress())) {
+                validSingle++;
+            }
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        // Verify the whole batch across all cores
+        start = System.nanoTime();
+        boolean[] results = verifyAll(checks);
+        long batchNanos = System.nanoTime() - start;
+        int validBatch = 0;
+        for (boolean result : results) {
+            if (result) {
+                validBatch++;
+            }
+        }
+
+        // Print the results
+        System.out.println("Single-call path: " + validSingle + "/" + batchSize + " valid, "
+                + (batchSize * 1_000_000_000L / Math.max(singleNanos, 1)) + " signatures/sec");
+        System.out.println("Batch path:       " + validBatch + "/" + batchSize + " valid, "
+                + (batchSize * 1_000_000_000L / Math.max(batchNanos, 1)) + " signatures/sec");
+    }
+}
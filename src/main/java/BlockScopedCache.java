@@ -0,0 +1,389 @@
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.core.methods.response.EthGetBalance;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A read-through cache for eth_call and eth_getBalance results, scoped to a block number. State at a given block
+ * never changes, so repeated reads inside one block are answered from memory, and concurrent reads of the same key
+ * share a single RPC. Entries are grouped per block: when a new head arrives, older blocks are dropped unless a
+ * caller has pinned them, and the oldest blocks are also dropped when the cache grows past its memory budget.
+ */
+public class BlockScopedCache implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL";
+    private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
+
+    // Rough per-entry cost of the map node, future and strings' headers, on top of the characters themselves
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    // A head that no poller or stream has confirmed for this long is fetched again before reads at "latest"
+    private static final long HEAD_TTL_MS = 1_000;
+
+    private final Web3j web3j;
+    private final long maxBytes;
+    private final ConcurrentNavigableMap<Long, BlockEntries> blocks = new ConcurrentSkipListMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong head = new AtomicLong(-1);
+    private volatile long headSeenAtNanos;
+    private volatile long headTtlNanos = TimeUnit.MILLISECONDS.toNanos(HEAD_TTL_MS);
+    private ScheduledExecutorService headPoller;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictedBlocks = new LongAdder();
+
+    private static class BlockEntries {
+        final ConcurrentMap<String, CompletableFuture<Object>> values = new ConcurrentHashMap<>();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicInteger pins = new AtomicInteger();
+    }
+
+    /**
+     * Keeps reads at one block number until it is closed. Use with try-with-resources.
+     */
+    public class BlockPin implements AutoCloseable {
+        private final long blockNumber;
+        private boolean closed;
+
+        BlockPin(long blockNumber) {
+            this.blockNumber = blockNumber;
+            // Retry if a new head evicted the block between looking it up and pinning it
+            while (true) {
+                BlockEntries entries = blocks.computeIfAbsent(blockNumber, number -> new BlockEntries());
+                entries.pins.incrementAndGet();
+                if (blocks.get(blockNumber) == entries) {
+                    break;
+                }
+                entries.pins.decrementAndGet();
+            }
+        }
+
+        public long getBlockNumber() {
+            return blockNumber;
+        }
+
+        public String call(String from, String to, String data) throws IOException {
+            return BlockScopedCache.this.call(blockNumber, from, to, data);
+        }
+
+        public BigInteger getBalance(String address) throws IOException {
+            return BlockScopedCache.this.getBalance(blockNumber, address);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                BlockEntries entries = blocks.get(blockNumber);
+                if (entries != null && entries.pins.decrementAndGet() == 0 && blockNumber < head.get()) {
+                    evictBlock(blockNumber);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param web3j    The Web3j instance reads go to on a miss.
+     * @param maxBytes The approximate memory budget of the cached results.
+     */
+    public BlockScopedCache(Web3j web3j, long maxBytes) {
+        this.web3j = web3j;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Follows the chain head by polling eth_blockNumber. Alternatively, pass new heads to {@link #onNewHead(long)},
+     * e.g. from {@link LogStream}.
+     *
+     * @param pollIntervalMs How often the head is polled.
+     */
+    public synchronized void followHeads(long pollIntervalMs) {
+        if (headPoller != null) {
+            return;
+        }
+        // A poller that keeps up refreshes the head before it expires; one that stalls still lets reads refetch it
+        headTtlNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMs + HEAD_TTL_MS);
+        headPoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "block-cache-head");
+            thread.setDaemon(true);
+            return thread;
+        });
+        headPoller.scheduleWithFixedDelay(() -> {
+            try {
+                onNewHead(web3j.ethBlockNumber().send().getBlockNumber().longValue());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error polling block number: " + e.getMessage());
+            }
+        }, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Moves the cache to a new head. Results of older blocks are dropped unless the block is pinned.
+     *
+     * @param blockNumber The number of the new head block.
+     */
+    public void onNewHead(long blockNumber) {
+        headSeenAtNanos = System.nanoTime();
+        if (head.getAndAccumulate(blockNumber, Math::max) >= blockNumber) {
+            return;
+        }
+        for (Map.Entry<Long, BlockEntries> entry : blocks.headMap(blockNumber).entrySet()) {
+            if (entry.getValue().pins.get() == 0) {
+                evictBlock(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * @return The latest known head. It is fetched from the node if no head has been seen yet, or if neither
+     * {@link #followHeads(long)} nor {@link #onNewHead(long)} has reported one recently (within a second, plus
+     * the poll interval when following heads).
+     * @throws IOException If the block number cannot be fetched.
+     */
+    public long latestBlock() throws IOException {
+        long current = head.get();
+        if (current < 0 || isHeadStale()) {
+            synchronized (head) {
+                // Another thread may have refreshed the head while this one waited
+                if (head.get() < 0 || isHeadStale()) {
+                    onNewHead(web3j.ethBlockNumber().send().getBlockNumber().longValue());
+                }
+            }
+            current = head.get();
+        }
+        return current;
+    }
+
+    private boolean isHeadStale() {
+        return System.nanoTime() - headSeenAtNanos > headTtlNanos;
+    }
+
+    /**
+     * Pins the latest block, so every read through the pin sees the same state even if new heads arrive meanwhile.
+     *
+     * @return The pin; close it when the consistent reads are done.
+     * @throws IOException If the block number cannot be fetched.
+     */
+    public BlockPin pin() throws IOException {
+        return new BlockPin(latestBlock());
+    }
+
+    /**
+     * Executes eth_call at the latest block, or returns the cached result of an identical call in that block.
+     *
+     * @param from The caller address (msg.sender), or null.
+     * @param to   The contract address.
+     * @param data The encoded function call.
+     * @return The raw value returned by the contract.
+     * @throws IOException If the call fails.
+     */
+    public String call(String from, String to, String data) throws IOException {
+        return call(latestBlock(), from, to, data);
+    }
+
+    /**
+     * Executes eth_call at the given block, or returns the cached result of an identical call in that block.
+     */
+    public String call(long blockNumber, String from, String to, String data) throws IOException {
+        String key = "call:" + (from == null ? "" : from.toLowerCase(Locale.ROOT)) + ":" + to.toLowerCase(Locale.ROOT)
+                + ":" + data.toLowerCase(Locale.ROOT);
+        return (String) read(blockNumber, key, () -> {
+            EthCall response = web3j.ethCall(Transaction.createEthCallTransaction(from, to, data),
+                    DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber))).send();
+            if (response.hasError()) {
+                throw new IOException("Error calling contract: " + response.getError().getMessage());
+            }
+            return response.getValue();
+        });
+    }
+
+    /**
+     * @return The balance in Wei at the latest block, from the cache when it was already read in that block.
+     * @throws IOException If the balance cannot be fetched.
+     */
+    public BigInteger getBalance(String address) throws IOException {
+        return getBalance(latestBlock(), address);
+    }
+
+    /**
+     * @return The balance in Wei at the given block, from the cache when it was already read.
+     * @throws IOException If the balance cannot be fetched.
+     */
+    public BigInteger getBalance(long blockNumber, String address) throws IOException {
+        return (BigInteger) read(blockNumber, "balance:" + address.toLowerCase(Locale.ROOT), () -> {
+            EthGetBalance response = web3j.ethGetBalance(address,
+                    DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber))).send();
+            if (response.hasError()) {
+                throw new IOException("Error fetching balance: " + response.getError().getMessage());
+            }
+            return response.getBalance();
+        });
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of reads that joined an RPC already in flight for the same key instead of sending their own.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getEvictedBlockCount() {
+        return evictedBlocks.sum();
+    }
+
+    /**
+     * @return The share of reads answered without a new RPC (hits and coalesced reads), between 0 and 1.
+     */
+    public double hitRatio() {
+        long saved = hits.sum() + coalesced.sum();
+        long total = saved + misses.sum();
+        return total == 0 ? 0 : (double) saved / total;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (headPoller != null) {
+            headPoller.shutdownNow();
+        }
+    }
+
+    private interface Loader {
+        Object load() throws IOException;
+    }
+
+    private Object read(long blockNumber, String key, Loader loader) throws IOException {
+        BlockEntries entries = blocks.computeIfAbsent(blockNumber, number -> new BlockEntries());
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = entries.values.putIfAbsent(key, created);
+        if (existing != null) {
+            if (existing.isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof UncheckedIOException
+                        ? ((UncheckedIOException) e.getCause()).getCause() : new IOException(e.getCause());
+            }
+        }
+
+        misses.increment();
+        Object value;
+        try {
+            value = loader.load();
+        } catch (IOException | RuntimeException e) {
+            // Failures are not cached: waiting callers get the error, later callers try again
+            entries.values.remove(key, created);
+            created.completeExceptionally(e instanceof IOException ? new UncheckedIOException((IOException) e) : e);
+            throw e;
+        }
+        created.complete(value);
+
+        long size = ENTRY_OVERHEAD_BYTES + 2L * (key.length() + value.toString().length());
+        synchronized (entries) {
+            // A block evicted while this read was in flight no longer counts towards the budget
+            if (blocks.get(blockNumber) == entries) {
+                entries.bytes.addAndGet(size);
+                usedBytes.addAndGet(size);
+            }
+        }
+        if (usedBytes.get() > maxBytes) {
+            evictOldest();
+        }
+        return value;
+    }
+
+    private void evictOldest() {
+        // Drop whole blocks, oldest first and unpinned first, until the cache fits its budget again
+        for (Long blockNumber : blocks.keySet()) {
+            if (usedBytes.get() <= maxBytes) {
+                return;
+            }
+            BlockEntries entries = blocks.get(blockNumber);
+            if (entries != null && entries.pins.get() == 0) {
+                evictBlock(blockNumber);
+            }
+        }
+        for (Long blockNumber : blocks.keySet()) {
+            if (usedBytes.get() <= maxBytes) {
+                return;
+            }
+            evictBlock(blockNumber);
+        }
+    }
+
+    private void evictBlock(long blockNumber) {
+        BlockEntries entries = blocks.remove(blockNumber);
+        if (entries != null) {
+            synchronized (entries) {
+                usedBytes.addAndGet(-entries.bytes.get());
+            }
+            evictedBlocks.increment();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+        String address = "0x4DC2739b3De594754066357e54bfCe70167b3F99";
+        String getValue = FunctionEncoder.encode(new Function("getValue", Collections.emptyList(), Collections.emptyList()));
+
+        // Keep up to about 16 MB of results and follow the head every 2 seconds
+        try (BlockScopedCache cache = new BlockScopedCache(web3j, 16 * 1024 * 1024)) {
+            cache.followHeads(2_000);
+
+            // Only the first of these reads reaches the node while the head stays the same
+            for (int i = 0; i < 10; i++) {
+                System.out.println("Balance: " + cache.getBalance(address) + " Wei");
+                System.out.println("getValue: " + cache.call(address, CONTRACT_ADDRESS, getValue));
+            }
+
+            // Reads through a pin all see the same block, even if a new head arrives in between
+            try (BlockScopedCache.BlockPin pin = cache.pin()) {
+                System.out.println("Block " + pin.getBlockNumber() + " balance: " + pin.getBalance(address) + " Wei");
+                System.out.println("Block " + pin.getBlockNumber() + " getValue: " + pin.call(address, CONTRACT_ADDRESS, getValue));
+            }
+
+            System.out.printf("Hit ratio: %.2f (hits=%d, misses=%d, coalesced=%d)%n",
+                    cache.hitRatio(), cache.getHitCount(), cache.getMissCount(), cache.getCoalescedCount());
+        }
+        web3j.shutdown();
+    }
+}
@@ -0,0 +1,463 @@
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.crypto.WalletUtils;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthChainId;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Numeric;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pays a list of recipients read from a CSV file ("recipient,amountInEther" per line) from one account.
+ * Nonces are given out in file order, transactions are signed in parallel on all cores, and sends go out through
+ * a token-bucket rate limiter with a bounded number of requests in flight.
+ * Every signed transaction is written to a journal file, and synced to disk, before it is sent. A rerun after a
+ * crash re-sends the journaled transactions byte for byte instead of signing new ones, so each row is paid at most once.
+ */
+public class BulkTransfer implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL"; // Test RPC URL, e.g., https://sepolia.optimism.io
+    private static final String PRIVATE_KEY = "YOUR_PRIVATE_KEY";
+
+    // Gas limit for a standard Ether transfer
+    private static final BigInteger TRANSFER_GAS_LIMIT = BigInteger.valueOf(21000);
+    // Node replies meaning a re-sent transaction is already in the mempool
+    private static final String[] ALREADY_KNOWN_HINTS = {"already known", "known transaction", "already imported"};
+
+    private static final String SIGNED = "SIGNED";
+    private static final String SENT = "SENT";
+    private static final String FAILED = "FAILED";
+
+    private final Web3j web3j;
+    private final Credentials credentials;
+    private final ContractSender.GasStrategy gasStrategy;
+    private final Path journalFile;
+    private final TokenBucket rateLimiter;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final ExecutorService signers;
+    private volatile boolean stopped;
+
+    /**
+     * The outcome of a run.
+     */
+    public static class Summary {
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger resent = new AtomicInteger();
+        private final AtomicInteger alreadySent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger invalid = new AtomicInteger();
+
+        public int getSent() {
+            return sent.get();
+        }
+
+        /**
+         * @return Rows whose journaled transaction was sent again because the previous run did not record a result.
+         */
+        public int getResent() {
+            return resent.get();
+        }
+
+        public int getAlreadySent() {
+            return alreadySent.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        public int getInvalid() {
+            return invalid.get();
+        }
+
+        @Override
+        public String toString() {
+            return "sent=" + sent + ", resent=" + resent + ", alreadySent=" + alreadySent
+                    + ", failed=" + failed + ", invalid=" + invalid;
+        }
+    }
+
+    private static class SignedTransfer {
+        final long row;
+        final String recipient;
+        final BigInteger valueInWei;
+        final BigInteger nonce;
+        final String transactionHash;
+        final String rawTransaction;
+        final boolean journaled;
+
+        SignedTransfer(long row, String recipient, BigInteger valueInWei, BigInteger nonce,
+                       String transactionHash, String rawTransaction, boolean journaled) {
+            this.row = row;
+            this.recipient = recipient;
+            this.valueInWei = valueInWei;
+            this.nonce = nonce;
+            this.transactionHash = transactionHash;
+            this.rawTransaction = rawTransaction;
+            this.journaled = journaled;
+        }
+    }
+
+    /**
+     * Hands out permits at a fixed rate, allowing bursts of up to the bucket capacity.
+     */
+    private static class TokenBucket {
+        private final double permitsPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(double permitsPerSecond, double capacity) {
+            this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        synchronized void acquire() {
+            while (true) {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+                lastRefill = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                long waitNanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+                try {
+                    // Sleeping while holding the lock keeps waiting callers in line
+                    Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a send permit", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * An append-only record file. SIGNED records are synced to disk before the transaction is sent.
+     */
+    private static class Journal implements Closeable {
+        private final FileOutputStream stream;
+        private final Writer writer;
+
+        Journal(Path file) throws IOException {
+            truncatePartialRecord(file);
+            this.stream = new FileOutputStream(file.toFile(), true);
+            this.writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        }
+
+        synchronized void append(boolean sync, Object... fields) throws IOException {
+            StringBuilder record = new StringBuilder();
+            for (Object field : fields) {
+                if (record.length() > 0) {
+                    record.append(',');
+                }
+                record.append(field);
+            }
+            writer.write(record.append('\n').toString());
+            writer.flush();
+            if (sync) {
+                stream.getFD().sync();
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+
+        /**
+         * A crash can leave a half-written record at the end of the file. It is cut off here, so the next record
+         * starts on a line of its own instead of being appended to the broken one.
+         */
+        private static void truncatePartialRecord(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return;
+            }
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+                long length = randomAccessFile.length();
+                long end = length;
+                while (end > 0) {
+                    randomAccessFile.seek(end - 1);
+                    if (randomAccessFile.read() == '\n') {
+                        break;
+                    }
+                    end--;
+                }
+                if (end < length) {
+                    randomAccessFile.setLength(end);
+                    randomAccessFile.getFD().sync();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param web3j                The Web3j instance transactions are sent through.
+     * @param credentials          The paying account.
+     * @param gasStrategy          Decides the gas price, e.g. {@link FeeHistoryGasStrategy}; the gas limit is fixed at 21,000.
+     * @param journalFile          The file signed transactions and their results are recorded in.
+     * @param transactionsPerSecond The maximum average send rate.
+     * @param maxInFlight          The maximum number of sends awaiting a reply from the node.
+     */
+    public BulkTransfer(Web3j web3j, Credentials credentials, ContractSender.GasStrategy gasStrategy, Path journalFile,
+                        double transactionsPerSecond, int maxInFlight) {
+        this.web3j = web3j;
+        this.credentials = credentials;
+        this.gasStrategy = gasStrategy;
+        this.journalFile = journalFile;
+        this.rateLimiter = new TokenBucket(transactionsPerSecond, Math.max(1, transactionsPerSecond));
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.signers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-transfer-signer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pays every row of the CSV file that has not been paid by an earlier run with the same journal.
+     * Stops scheduling new rows after the first send the node rejects; a rerun sends the failed row again.
+     *
+     * @param csvFile Lines of "recipient,amountInEther"; blank lines, lines starting with "#" and a header are skipped.
+     * @return The outcome of the run.
+     * @throws IOException If the journal cannot be written, the node cannot be reached, or the file no longer
+     *                     matches the journal of an earlier run.
+     */
+    public Summary run(Path csvFile) throws IOException {
+        Map<Long, SignedTransfer> journaled = new HashMap<>();
+        Map<Long, Boolean> sentRows = new HashMap<>();
+        BigInteger maxJournaledNonce = readJournal(journaled, sentRows);
+        for (Long sentRow : sentRows.keySet()) {
+            if (!journaled.containsKey(sentRow)) {
+                // Signing the row again would pay the recipient a second time
+                throw new IOException("Row " + sentRow + " is journaled as sent but its signed transaction is missing "
+                        + "or unreadable; refusing to continue");
+            }
+        }
+
+        long chainId = chainId();
+        EthGetTransactionCount countResponse = web3j.ethGetTransactionCount(
+                credentials.getAddress(), DefaultBlockParameterName.PENDING).send();
+        if (countResponse.hasError()) {
+            throw new IOException("Error fetching nonce: " + countResponse.getError().getMessage());
+        }
+        // Journaled nonces continue where the last run stopped, even if some of its transactions left the mempool
+        BigInteger nextNonce = countResponse.getTransactionCount().max(maxJournaledNonce.add(BigInteger.ONE));
+
+        Summary summary = new Summary();
+        stopped = false;
+        // Signing runs ahead in parallel, but transactions are journaled and sent strictly in nonce order
+        Deque<CompletableFuture<SignedTransfer>> window = new ArrayDeque<>();
+        int windowSize = Runtime.getRuntime().availableProcessors() * 8;
+
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             Journal journal = new Journal(journalFile)) {
+            String line;
+            long row = 0;
+            while (!stopped && (line = reader.readLine()) != null) {
+                row++;
+                String[] fields = line.split(",");
+                if (line.trim().isEmpty() || line.startsWith("#") || (row == 1 && !fields[0].trim().startsWith(CommonConstant.ADDRESS_PREFIX))) {
+                    continue;
+                }
+                String recipient = fields[0].trim();
+                BigInteger valueInWei;
+                try {
+                    valueInWei = Convert.toWei(new BigDecimal(fields[1].trim()), Convert.Unit.ETHER).toBigIntegerExact();
+                } catch (ArithmeticException | ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                    valueInWei = null;
+                }
+                if (valueInWei == null || valueInWei.signum() <= 0 || !WalletUtils.isValidAddress(recipient)) {
+                    System.err.println("Skipping invalid row " + row + ": " + line);
+                    summary.invalid.incrementAndGet();
+                    continue;
+                }
+
+                SignedTransfer previous = journaled.get(row);
+                if (previous != null
+                        && (!previous.recipient.equalsIgnoreCase(recipient) || !previous.valueInWei.equals(valueInWei))) {
+                    throw new IOException("Row " + row + " differs from the journal; refusing to continue");
+                }
+                if (sentRows.containsKey(row)) {
+                    summary.alreadySent.incrementAndGet();
+                } else if (previous != null) {
+                    window.add(CompletableFuture.completedFuture(previous));
+                } else {
+                    long currentRow = row;
+                    BigInteger nonce = nextNonce;
+                    BigInteger gasPrice = gasStrategy.gasPrice();
+                    BigInteger value = valueInWei;
+                    nextNonce = nextNonce.add(BigInteger.ONE);
+                    window.add(CompletableFuture.supplyAsync(
+                            () -> sign(currentRow, recipient, value, nonce, gasPrice, chainId), signers));
+                }
+                while (window.size() >= windowSize && !stopped) {
+                    submit(window.poll().join(), journal, summary);
+                }
+            }
+            while (!window.isEmpty() && !stopped) {
+                submit(window.poll().join(), journal, summary);
+            }
+
+            // Wait for the sends still in flight before the journal is closed
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+        return summary;
+    }
+
+    @Override
+    public void close() {
+        signers.shutdown();
+    }
+
+    private SignedTransfer sign(long row, String recipient, BigInteger valueInWei, BigInteger nonce, BigInteger gasPrice, long chainId) {
+        RawTransaction rawTransaction = RawTransaction.createEtherTransaction(
+                nonce, gasPrice, TRANSFER_GAS_LIMIT, recipient, valueInWei);
+        byte[] signedMessage = TransactionEncoder.signMessage(rawTransaction, chainId, credentials);
+        return new SignedTransfer(row, recipient, valueInWei, nonce,
+                Numeric.toHexString(Hash.sha3(signedMessage)), Numeric.toHexString(signedMessage), false);
+    }
+
+    private void submit(SignedTransfer transfer, Journal journal, Summary summary) throws IOException {
+        if (!transfer.journaled) {
+            // The transaction must be on disk before the node can see it, or a crash could lead to paying twice
+            journal.append(true, SIGNED, transfer.row, transfer.recipient, transfer.valueInWei,
+                    transfer.nonce, transfer.transactionHash, transfer.rawTransaction);
+        }
+        rateLimiter.acquire();
+        inFlight.acquireUninterruptibly();
+        web3j.ethSendRawTransaction(transfer.rawTransaction).sendAsync().whenComplete((response, throwable) -> {
+            try {
+                String error = throwable != null ? String.valueOf(throwable.getMessage())
+                        : response.hasError() ? response.getError().getMessage() : null;
+                if (error == null || (transfer.journaled && wasAlreadySent(transfer, error))) {
+                    journal.append(false, SENT, transfer.row, transfer.transactionHash);
+                    (transfer.journaled ? summary.resent : summary.sent).incrementAndGet();
+                } else {
+                    journal.append(false, FAILED, transfer.row, transfer.transactionHash,
+                            error.replace(',', ' ').replace('\n', ' '));
+                    summary.failed.incrementAndGet();
+                    System.err.println("Row " + transfer.row + " failed: " + error);
+                    // Later nonces would wait behind the failed one, so stop here and let a rerun resend it
+                    stopped = true;
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing journal: " + e.getMessage());
+                stopped = true;
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Loads the journal of earlier runs.
+     *
+     * @return The highest journaled nonce, or -1 if there is none.
+     */
+    private BigInteger readJournal(Map<Long, SignedTransfer> journaled, Map<Long, Boolean> sentRows) throws IOException {
+        BigInteger maxNonce = BigInteger.ONE.negate();
+        if (!Files.exists(journalFile)) {
+            return maxNonce;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                // A record cut short by a crash is ignored; its transaction was never sent
+                if (fields[0].equals(SIGNED) && fields.length == 7 && isIntact(fields[5], fields[6])) {
+                    SignedTransfer transfer = new SignedTransfer(Long.parseLong(fields[1]), fields[2],
+                            new BigInteger(fields[3]), new BigInteger(fields[4]), fields[5], fields[6], true);
+                    journaled.put(transfer.row, transfer);
+                    maxNonce = maxNonce.max(transfer.nonce);
+                } else if (fields[0].equals(SENT) && fields.length == 3) {
+                    sentRows.put(Long.parseLong(fields[1]), Boolean.TRUE);
+                }
+            }
+        }
+        return maxNonce;
+    }
+
+    /**
+     * @return True if the raw transaction decodes and hashes to the journaled hash, i.e. it was not cut short.
+     */
+    private static boolean isIntact(String transactionHash, String rawTransaction) {
+        try {
+            TransactionDecoder.decode(rawTransaction);
+            return Numeric.toHexString(Hash.sha3(Numeric.hexStringToByteArray(rawTransaction)))
+                    .equalsIgnoreCase(transactionHash);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private long chainId() throws IOException {
+        EthChainId chainIdResponse = web3j.ethChainId().send();
+        if (chainIdResponse.hasError()) {
+            throw new IOException("Error fetching chain id: " + chainIdResponse.getError().getMessage());
+        }
+        return chainIdResponse.getChainId().longValue();
+    }
+
+    /**
+     * Decides whether a re-sent transaction was rejected only because the earlier run already sent it.
+     */
+    private boolean wasAlreadySent(SignedTransfer transfer, String error) throws IOException {
+        String lowerCase = error.toLowerCase(Locale.ROOT);
+        for (String hint : ALREADY_KNOWN_HINTS) {
+            if (lowerCase.contains(hint)) {
+                return true;
+            }
+        }
+        // The nonce is used; it only counts as paid if it was used by this very transaction
+        return lowerCase.contains("nonce too low")
+                && web3j.ethGetTransactionByHash(transfer.transactionHash).send().getTransaction().isPresent();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+        Credentials credentials = Credentials.create(PRIVATE_KEY);
+
+        // payouts.csv holds one "recipient,amountInEther" per line; rerunning after a crash resumes from the journal
+        try (BulkTransfer bulkTransfer = new BulkTransfer(web3j, credentials, ContractSender.DEFAULT_GAS_STRATEGY,
+                Paths.get("payouts.journal"), 20, 64)) {
+            Summary summary = bulkTransfer.run(Paths.get("payouts.csv"));
+            System.out.println("Bulk transfer finished: " + summary);
+        }
+        web3j.shutdown();
+    }
+}
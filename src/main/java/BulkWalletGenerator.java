@@ -0,0 +1,194 @@
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BulkWalletGenerator {
+
+    public static final int PRIVATE_KEY_BYTE_LENGTH = 32;
+
+    // Below this many keys a task generates its range directly instead of splitting further
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+    private static final int UNCOMPRESSED_POINT_BYTE_LENGTH = CommonConstant.PUBLIC_KEY_BYTE_LENGTH + 1;
+    private static final BigInteger CURVE_ORDER = Sign.CURVE_PARAMS.getN();
+
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // Keys beyond this would overflow the int offsets of the flat arrays in GeneratedWallets
+    private static final int MAX_FLAT_COUNT = Integer.MAX_VALUE / PRIVATE_KEY_BYTE_LENGTH;
+
+    // One generator per worker thread, so threads never contend on a shared SecureRandom.
+    // DRBG (Java 9+) is preferred; on Java 8 the platform default SecureRandom is used.
+    private static final ThreadLocal<Generator> GENERATORS = ThreadLocal.withInitial(Generator::new);
+
+    /**
+     * Receives generated key pairs. Called concurrently from several threads; the arrays passed in
+     * are reused by the calling thread, so copy them if they must outlive the call.
+     */
+    public interface KeyPairSink {
+        void accept(long index, byte[] privateKey, byte[] address);
+    }
+
+    /**
+     * Generated key pairs stored back to back in two flat arrays: private key i occupies
+     * privateKeys[32 * i, 32 * i + 32) and its address occupies addresses[20 * i, 20 * i + 20).
+     */
+    public static class GeneratedWallets {
+        private final byte[] privateKeys;
+        private final byte[] addresses;
+
+        GeneratedWallets(int count) {
+            if (count < 0 || count > MAX_FLAT_COUNT) {
+                throw new IllegalArgumentException("count must be between 0 and " + MAX_FLAT_COUNT + ": " + count);
+            }
+            this.privateKeys = new byte[count * PRIVATE_KEY_BYTE_LENGTH];
+            this.addresses = new byte[count * CommonConstant.ADDRESS_BYTE_LENGTH];
+        }
+
+        public int size() {
+            return addresses.length / CommonConstant.ADDRESS_BYTE_LENGTH;
+        }
+
+        public byte[] getPrivateKeys() {
+            return privateKeys;
+        }
+
+        public byte[] getAddresses() {
+            return addresses;
+        }
+
+        /**
+         * @return The private key at the given index in hexadecimal format, without "0x".
+         */
+        public String getPrivateKeyHex(int index) {
+            return Numeric.toHexString(privateKeys, index * PRIVATE_KEY_BYTE_LENGTH, PRIVATE_KEY_BYTE_LENGTH, false);
+        }
+
+        /**
+         * @return The wallet address at the given index (starting with "0x").
+         */
+        public String getAddress(int index) {
+            return Numeric.toHexString(addresses, index * CommonConstant.ADDRESS_BYTE_LENGTH, CommonConstant.ADDRESS_BYTE_LENGTH, true);
+        }
+    }
+
+    /**
+     * Generates key pairs in parallel on a shared fork-join pool sized to the number of cores.
+     *
+     * @param count The number of key pairs to generate, at most Integer.MAX_VALUE / 32. Use
+     *              {@link #generate(long, KeyPairSink)} to stream larger amounts.
+     * @return      The generated private keys and addresses as flat byte arrays.
+     */
+    public static GeneratedWallets generate(int count) {
+        GeneratedWallets wallets = new GeneratedWallets(count);
+        generate(count, (index, privateKey, address) -> {
+            int i = (int) index;
+            System.arraycopy(privateKey, 0, wallets.privateKeys, i * PRIVATE_KEY_BYTE_LENGTH, PRIVATE_KEY_BYTE_LENGTH);
+            System.arraycopy(address, 0, wallets.addresses, i * CommonConstant.ADDRESS_BYTE_LENGTH, CommonConstant.ADDRESS_BYTE_LENGTH);
+        });
+        return wallets;
+    }
+
+    /**
+     * Generates key pairs in parallel and streams each one to the sink as soon as it is ready.
+     *
+     * @param count The number of key pairs to generate.
+     * @param sink  Receives every key pair exactly once, from multiple threads.
+     */
+    public static void generate(long count, KeyPairSink sink) {
+        if (count > 0) {
+            DEFAULT_POOL.invoke(new GenerateTask(sink, 0, count));
+        }
+    }
+
+    private static class Generator {
+        final SecureRandom random;
+        final KeccakDigest keccak = new KeccakDigest(256);
+        final byte[] privateKey = new byte[PRIVATE_KEY_BYTE_LENGTH];
+        final byte[] hash = new byte[32];
+        final byte[] address = new byte[CommonConstant.ADDRESS_BYTE_LENGTH];
+
+        Generator() {
+            random = newSecureRandom();
+        }
+
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+
+        void next() {
+            // Draw 32 random bytes until they form a key in [1, n - 1]
+            BigInteger key;
+            do {
+                random.nextBytes(privateKey);
+                key = new BigInteger(1, privateKey);
+            } while (key.signum() == 0 || key.compareTo(CURVE_ORDER) >= 0);
+
+            // Address = last 20 bytes of keccak256(x || y) of the uncompressed public point
+            byte[] point = Sign.publicPointFromPrivate(key).getEncoded(false);
+            keccak.update(point, 1, UNCOMPRESSED_POINT_BYTE_LENGTH - 1);
+            keccak.doFinal(hash, 0);
+            System.arraycopy(hash, hash.length - address.length, address, 0, address.length);
+        }
+    }
+
+    private static class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final KeyPairSink sink;
+        private final long from;
+        private final long to;
+
+        GenerateTask(KeyPairSink sink, long from, long to) {
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Generator generator = GENERATORS.get();
+                for (long i = from; i < to; i++) {
+                    generator.next();
+                    sink.accept(i, generator.privateKey, generator.address);
+                }
+                return;
+            }
+            long middle = (from + to) >>> 1;
+            invokeAll(new GenerateTask(sink, from, middle), new GenerateTask(sink, middle, to));
+        }
+    }
+
+    public static void main(String[] args) {
+        int count = 20_000;
+        int cores = DEFAULT_POOL.getParallelism();
+
+        // Warm up the EC multiplier tables and the JIT before measuring
+        generate(2_000);
+
+        long start = System.nanoTime();
+        GeneratedWallets wallets = generate(count);
+        long nanos = System.nanoTime() - start;
+
+        long keysPerSecond = count * 1_000_000_000L / Math.max(nanos, 1);
+        System.out.println("Generated " + count + " key pairs on " + cores + " cores: "
+                + keysPerSecond + " keys/sec, " + keysPerSecond / cores + " keys/sec per core");
+
+        // Cross-check one generated pair against the single-key path in Wallet
+        String privateKeyHex = wallets.getPrivateKeyHex(0);
+        String walletAddress = wallets.getAddress(0);
+        System.out.println("The wallet address of [" + privateKeyHex + "] is: [" + walletAddress + "]");
+        System.out.println("Matches Wallet.getWalletAddressFromPrivateKeyHex: "
+                + walletAddress.equals(Wallet.getWalletAddressFromPrivateKeyHex(privateKeyHex)));
+    }
+}
@@ -8,5 +8,7 @@ public class CommonConstant {
     public static final int R_END_INDEX = 32;
     public static final int S_START_INDEX = 32;
     public static final int S_END_INDEX = 64;
+    public static final int ADDRESS_BYTE_LENGTH = 20;
+    public static final int PUBLIC_KEY_BYTE_LENGTH = 64;
     public static final String ADDRESS_PREFIX = "0x";
 }
@@ -0,0 +1,348 @@
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.schedulers.Schedulers;
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A streaming stage between a log source such as {@link Web3j#ethLogFlowable(EthFilter)} and the code handling events.
+ * Logs are buffered up to a fixed capacity, held back (again up to a fixed number) until they have enough
+ * confirmations, checked against the canonical block hash, and handed to a pool of consumer threads that keeps the
+ * events of each contract in order.
+ * Logs that a reorganization orphans after they were delivered are delivered again as REMOVED events.
+ */
+public class ConfirmedEventPipeline implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL";
+    private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
+
+    public enum OverflowPolicy {
+        DROP_OLDEST(BackpressureOverflowStrategy.DROP_OLDEST),
+        DROP_LATEST(BackpressureOverflowStrategy.DROP_LATEST),
+        ERROR(BackpressureOverflowStrategy.ERROR);
+
+        private final BackpressureOverflowStrategy strategy;
+
+        OverflowPolicy(BackpressureOverflowStrategy strategy) {
+            this.strategy = strategy;
+        }
+    }
+
+    public enum EventType {
+        ADDED, REMOVED
+    }
+
+    public static class PipelineEvent {
+        private final EventType type;
+        private final Log log;
+
+        PipelineEvent(EventType type, Log log) {
+            this.type = type;
+            this.log = log;
+        }
+
+        public EventType getType() {
+            return type;
+        }
+
+        public Log getLog() {
+            return log;
+        }
+    }
+
+    private final Web3j web3j;
+    private final int confirmations;
+    private final int reorgWindow;
+    private final Consumer<PipelineEvent> handler;
+
+    // All pipeline state is owned by this single thread, so none of it needs locking
+    private final ExecutorService stageExecutor;
+    private final Scheduler stageScheduler;
+    private final ExecutorService[] consumers;
+    private final CompositeDisposable subscriptions = new CompositeDisposable();
+
+    private final NavigableMap<Long, List<Log>> pending = new TreeMap<>();
+    private int pendingCount;
+    private int maxPendingLogs;
+    private OverflowPolicy overflowPolicy;
+    private Consumer<Throwable> errorHandler;
+    private final NavigableMap<Long, DeliveredBlock> delivered = new TreeMap<>();
+
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong orphaned = new AtomicLong();
+
+    private static class DeliveredBlock {
+        final String blockHash;
+        final List<Log> logs = new ArrayList<>();
+
+        DeliveredBlock(String blockHash) {
+            this.blockHash = blockHash;
+        }
+    }
+
+    /**
+     * @param web3j              The Web3j instance used to follow the chain head and canonical block hashes.
+     * @param confirmations      How many blocks (including its own) must exist before a log is delivered.
+     * @param reorgWindow        How many blocks below the head delivered logs are watched for reorganizations.
+     * @param consumerThreads    The number of consumer threads; each contract is always handled by the same thread.
+     * @param consumerQueueSize  The number of events each consumer thread may have queued.
+     * @param handler            Receives ADDED and REMOVED events on the consumer threads.
+     */
+    public ConfirmedEventPipeline(Web3j web3j, int confirmations, int reorgWindow, int consumerThreads,
+                                  int consumerQueueSize, Consumer<PipelineEvent> handler) {
+        this.web3j = web3j;
+        this.confirmations = confirmations;
+        this.reorgWindow = Math.max(reorgWindow, confirmations);
+        this.handler = handler;
+        this.stageExecutor = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "event-pipeline-stage"));
+        this.stageScheduler = Schedulers.from(stageExecutor);
+        this.consumers = new ExecutorService[consumerThreads];
+        for (int i = 0; i < consumerThreads; i++) {
+            // A full consumer queue blocks the stage thread, which in turn fills the bounded input buffer
+            consumers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(consumerQueueSize),
+                    runnable -> daemon(runnable, "event-pipeline-consumer"),
+                    (runnable, executor) -> {
+                        try {
+                            if (!executor.isShutdown()) {
+                                executor.getQueue().put(runnable);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Starts consuming logs.
+     *
+     * @param logs                 The log source, e.g. web3j.ethLogFlowable(filter).
+     * @param bufferCapacity       How many logs may wait for the stage thread before the overflow policy applies.
+     * @param maxPendingLogs       How many logs may wait for confirmations before the overflow policy applies.
+     * @param overflowPolicy       What happens to logs that arrive while the buffer or the pending logs are full.
+     * @param headPollIntervalMs   How often the chain head is checked for confirmations and reorganizations.
+     * @param errorHandler         Called on the stage thread when the log source fails or, with ERROR, overflows;
+     *                             the pipeline stops consuming logs afterwards.
+     */
+    public void start(Flowable<Log> logs, long bufferCapacity, int maxPendingLogs, OverflowPolicy overflowPolicy,
+                      long headPollIntervalMs, Consumer<Throwable> errorHandler) {
+        this.maxPendingLogs = maxPendingLogs;
+        this.overflowPolicy = overflowPolicy;
+        this.errorHandler = errorHandler;
+        subscriptions.add(logs
+                .onBackpressureBuffer(bufferCapacity, overflowed::incrementAndGet, overflowPolicy.strategy)
+                .observeOn(stageScheduler)
+                .subscribe(this::onLog, this::onError));
+        subscriptions.add(Flowable.interval(headPollIntervalMs, TimeUnit.MILLISECONDS)
+                .onBackpressureDrop()
+                .observeOn(stageScheduler)
+                .subscribe(tick -> onHeadTick()));
+    }
+
+    /**
+     * @return The number of logs discarded because the input buffer or the pending logs were full.
+     */
+    public long getOverflowedCount() {
+        return overflowed.get();
+    }
+
+    /**
+     * @return The number of logs dropped because their block was reorganized away before it was confirmed.
+     */
+    public long getOrphanedCount() {
+        return orphaned.get();
+    }
+
+    @Override
+    public void close() {
+        subscriptions.dispose();
+        stageExecutor.shutdown();
+        for (ExecutorService consumer : consumers) {
+            consumer.shutdown();
+        }
+    }
+
+    private void onLog(Log log) {
+        long blockNumber = log.getBlockNumber().longValue();
+        if (log.isRemoved()) {
+            // The node itself reports the log as orphaned
+            List<Log> blockLogs = pending.get(blockNumber);
+            if (blockLogs != null && blockLogs.removeIf(candidate -> sameLog(candidate, log))) {
+                pendingCount--;
+                if (blockLogs.isEmpty()) {
+                    pending.remove(blockNumber);
+                }
+                orphaned.incrementAndGet();
+                return;
+            }
+            DeliveredBlock deliveredBlock = delivered.get(blockNumber);
+            if (deliveredBlock != null && deliveredBlock.blockHash.equalsIgnoreCase(log.getBlockHash())) {
+                undeliver(blockNumber, deliveredBlock);
+            }
+            return;
+        }
+        if (pendingCount >= maxPendingLogs) {
+            switch (overflowPolicy) {
+                case DROP_OLDEST:
+                    removePending(pending.firstEntry(), 0);
+                    break;
+                case DROP_LATEST:
+                    Map.Entry<Long, List<Log>> latest = pending.lastEntry();
+                    removePending(latest, latest.getValue().size() - 1);
+                    break;
+                default:
+                    // Thrown from onNext, this cancels the log source and ends up in onError
+                    throw new MissingBackpressureException("More than " + maxPendingLogs + " logs waiting for confirmations");
+            }
+            overflowed.incrementAndGet();
+        }
+        pending.computeIfAbsent(blockNumber, number -> new ArrayList<>()).add(log);
+        pendingCount++;
+    }
+
+    private void removePending(Map.Entry<Long, List<Log>> entry, int index) {
+        entry.getValue().remove(index);
+        pendingCount--;
+        if (entry.getValue().isEmpty()) {
+            pending.remove(entry.getKey());
+        }
+    }
+
+    private void onError(Throwable throwable) {
+        System.err.println("Error processing event log: " + throwable.getMessage());
+        // The log subscription is already over; stop following the head too
+        subscriptions.dispose();
+        errorHandler.accept(throwable);
+    }
+
+    private void onHeadTick() {
+        try {
+            checkHead();
+        } catch (IOException | RuntimeException e) {
+            // A failed poll must not end the subscription; the next tick retries
+            System.err.println("Error following chain head: " + e.getMessage());
+        }
+    }
+
+    private void checkHead() throws IOException {
+        long head = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+        Map<Long, String> canonicalHashes = new HashMap<>();
+
+        // Re-check delivered blocks still inside the reorg window, and forget older ones
+        delivered.headMap(head - reorgWindow, false).clear();
+        for (Map.Entry<Long, DeliveredBlock> entry : new ArrayList<>(delivered.entrySet())) {
+            String canonicalHash = canonicalHash(entry.getKey(), canonicalHashes);
+            if (canonicalHash != null && !canonicalHash.equalsIgnoreCase(entry.getValue().blockHash)) {
+                undeliver(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Deliver pending logs that now have enough confirmations and belong to the canonical chain
+        Iterator<Map.Entry<Long, List<Log>>> iterator = pending.headMap(head - confirmations + 1, true).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, List<Log>> entry = iterator.next();
+            String canonicalHash = canonicalHash(entry.getKey(), canonicalHashes);
+            if (canonicalHash == null) {
+                // The node does not know the block yet; try again on the next tick
+                continue;
+            }
+            for (Log log : entry.getValue()) {
+                if (canonicalHash.equalsIgnoreCase(log.getBlockHash())) {
+                    delivered.computeIfAbsent(entry.getKey(), number -> new DeliveredBlock(canonicalHash)).logs.add(log);
+                    dispatch(new PipelineEvent(EventType.ADDED, log));
+                } else {
+                    orphaned.incrementAndGet();
+                }
+            }
+            pendingCount -= entry.getValue().size();
+            iterator.remove();
+        }
+    }
+
+    private void undeliver(long blockNumber, DeliveredBlock deliveredBlock) {
+        delivered.remove(blockNumber);
+        for (Log log : deliveredBlock.logs) {
+            dispatch(new PipelineEvent(EventType.REMOVED, log));
+        }
+    }
+
+    private String canonicalHash(long blockNumber, Map<Long, String> canonicalHashes) throws IOException {
+        if (!canonicalHashes.containsKey(blockNumber)) {
+            EthBlock.Block block = web3j.ethGetBlockByNumber(
+                    DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber)), false).send().getBlock();
+            canonicalHashes.put(blockNumber, block == null ? null : block.getHash());
+        }
+        return canonicalHashes.get(blockNumber);
+    }
+
+    private void dispatch(PipelineEvent event) {
+        // Events of the same contract always go to the same single-threaded consumer, which keeps them in order
+        int index = (event.getLog().getAddress().toLowerCase().hashCode() & Integer.MAX_VALUE) % consumers.length;
+        consumers[index].execute(() -> {
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("Error handling event: " + e.getMessage());
+            }
+        });
+    }
+
+    private static boolean sameLog(Log a, Log b) {
+        return a.getBlockHash().equalsIgnoreCase(b.getBlockHash()) && a.getLogIndex().equals(b.getLogIndex());
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+
+        EthFilter filter = new EthFilter(
+                DefaultBlockParameterName.LATEST,
+                DefaultBlockParameterName.LATEST,
+                CONTRACT_ADDRESS
+        );
+        filter.addOptionalTopics(EventEncoder.encode(EventListener.VALUE_UPDATED));
+
+        // Wait for 12 confirmations, watch the last 64 blocks for reorgs, and handle events on 4 threads
+        ConfirmedEventPipeline pipeline = new ConfirmedEventPipeline(web3j, 12, 64, 4, 1_000,
+                event -> System.out.println(event.getType() + " block " + event.getLog().getBlockNumber()
+                        + ", tx " + event.getLog().getTransactionHash()));
+        // Stop with an error rather than lose events when more than 10000 logs wait in the buffer or for confirmations
+        pipeline.start(web3j.ethLogFlowable(filter), 10_000, 10_000, OverflowPolicy.ERROR, 2_000,
+                throwable -> System.err.println("Event pipeline stopped: " + throwable));
+
+        // Keep the process alive while events stream in
+        Thread.currentThread().join();
+    }
+}
@@ -10,6 +10,7 @@ import org.web3j.protocol.core.methods.request.Transaction;
 import org.web3j.protocol.core.methods.response.EthCall;
 import org.web3j.protocol.core.methods.response.EthChainId;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.tx.RawTransactionManager;
 import org.web3j.tx.gas.DefaultGasProvider;
@@ -27,7 +28,7 @@ public class ContractInteraction {
     private static final String PRIVATE_KEY = "YOUR_PRIVATE_KEY";
     private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
 
-    private static final Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+    private static final Web3j web3j = Web3j.build(Metrics.instrument(new HttpService(RPC_URL)));
     private static final Credentials credentials = Credentials.create(PRIVATE_KEY);
 
     /**
@@ -41,7 +42,9 @@ public class ContractInteraction {
      */
     public static String callContract(String functionName, List<Type> inputParameters, List<TypeReference<?>> outputParameters) throws IOException {
         Function function = new Function(functionName, inputParameters, outputParameters);
+        long start = Metrics.start();
         String encodedFunction = FunctionEncoder.encode(function);
+        Metrics.record(Metrics.ABI, "encode", start, true);
 
         EthCall response = web3j.ethCall(
                 Transaction.createEthCallTransaction(credentials.getAddress(), CONTRACT_ADDRESS, encodedFunction),
@@ -63,7 +66,9 @@ public class ContractInteraction {
     public static String sendTransaction(String functionName, List<Type> inputParameters, List<TypeReference<?>> outputParameters) throws Exception {
         // Construct the function call
         Function function = new Function(functionName, inputParameters, outputParameters);
+        long start = Metrics.start();
         String encodedFunction = FunctionEncoder.encode(function);
+        Metrics.record(Metrics.ABI, "encode", start, true);
 
         // Retrieve Chain ID
         EthChainId chainIdResponse = web3j.ethChainId().send();
@@ -107,7 +112,10 @@ public class ContractInteraction {
         System.out.println("Transaction sent! Tx Hash: " + txHash);
 
         // Wait for the transaction to be confirmed (you can also check manually on a blockchain explorer)
-        Thread.sleep(15000); // 15 seconds wait time
+        try (ReceiptTracker tracker = new ReceiptTracker(new HttpService(RPC_URL), 1, 120_000, 60_000, 2_000)) {
+            TransactionReceipt receipt = tracker.track(txHash).get();
+            System.out.println("Confirmed in block " + receipt.getBlockNumber() + ", status " + receipt.getStatus());
+        }
 
         // Retrieve contract value after the transaction
         String resultAfter = callContract("getValue",
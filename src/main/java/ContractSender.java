@@ -0,0 +1,180 @@
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthChainId;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.gas.DefaultGasProvider;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A reusable alternative to {@link ContractInteraction#sendTransaction(String, List, List)} that caches the chain id,
+ * keeps one transaction manager per credential, hands out nonces through a {@link NonceManager} and takes its
+ * gas price and limit from a pluggable strategy.
+ */
+public class ContractSender {
+
+    private static final String RPC_URL = "RPC_URL"; // Test RPC URL, e.g., https://sepolia.optimism.io
+    private static final String PRIVATE_KEY = "YOUR_PRIVATE_KEY";
+    private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
+
+    private final Web3j web3j;
+    private final GasStrategy gasStrategy;
+    private final NonceManager nonceManager;
+    private final ConcurrentMap<String, RawTransactionManager> transactionManagers = new ConcurrentHashMap<>();
+    // The nonce the transaction manager took for the send running on this thread
+    private final ThreadLocal<BigInteger> takenNonce = new ThreadLocal<>();
+    private volatile Long chainId;
+
+    /**
+     * Decides the gas price and gas limit of each transaction.
+     */
+    public interface GasStrategy {
+        BigInteger gasPrice() throws IOException;
+
+        BigInteger gasLimit(String from, String to, String encodedFunction) throws IOException;
+    }
+
+    /**
+     * The fixed price and limit from {@link DefaultGasProvider}, as used by {@link ContractInteraction}.
+     */
+    public static final GasStrategy DEFAULT_GAS_STRATEGY = new GasStrategy() {
+        @Override
+        public BigInteger gasPrice() {
+            return DefaultGasProvider.GAS_PRICE;
+        }
+
+        @Override
+        public BigInteger gasLimit(String from, String to, String encodedFunction) {
+            return DefaultGasProvider.GAS_LIMIT;
+        }
+    };
+
+    public ContractSender(Web3j web3j, GasStrategy gasStrategy) {
+        this.web3j = web3j;
+        this.gasStrategy = gasStrategy;
+        this.nonceManager = new NonceManager(web3j);
+    }
+
+    /**
+     * Sends a transaction to execute a function on the smart contract (modifies the blockchain state).
+     *
+     * @param credentials     The credentials of the sender.
+     * @param contractAddress The address of the contract.
+     * @param function        The contract function to execute.
+     * @param value           The amount of Wei sent with the call.
+     * @return The transaction hash of the submitted transaction.
+     * @throws IOException If an error occurs while sending the transaction.
+     */
+    public String sendTransaction(Credentials credentials, String contractAddress, Function function, BigInteger value) throws IOException {
+        long start = Metrics.start();
+        String encodedFunction = FunctionEncoder.encode(function);
+        Metrics.record(Metrics.ABI, "encode", start, true);
+
+        BigInteger gasPrice = gasStrategy.gasPrice();
+        BigInteger gasLimit = gasStrategy.gasLimit(credentials.getAddress(), contractAddress, encodedFunction);
+
+        RawTransactionManager transactionManager = transactionManager(credentials);
+        takenNonce.remove();
+        EthSendTransaction transactionResponse;
+        try {
+            transactionResponse = transactionManager.sendTransaction(
+                    gasPrice,
+                    gasLimit,
+                    contractAddress,
+                    encodedFunction,
+                    value
+            );
+        } catch (IOException | RuntimeException e) {
+            releaseTakenNonce(credentials.getAddress());
+            throw e;
+        }
+
+        // Check for transaction errors; a failed send must not leave a gap that later transactions queue behind
+        if (transactionResponse.hasError()) {
+            if (NonceManager.isNonceError(transactionResponse.getError())) {
+                takenNonce.remove();
+                nonceManager.resync(credentials.getAddress());
+            } else {
+                releaseTakenNonce(credentials.getAddress());
+            }
+            throw new IOException("Error sending transaction: " + transactionResponse.getError().getMessage());
+        }
+        takenNonce.remove();
+
+        return transactionResponse.getTransactionHash();
+    }
+
+    /**
+     * @return The chain id, fetched from the node on first use and cached afterwards.
+     * @throws IOException If there is an issue communicating with the Ethereum node.
+     */
+    public long getChainId() throws IOException {
+        Long cached = chainId;
+        if (cached == null) {
+            EthChainId chainIdResponse = web3j.ethChainId().send();
+            if (chainIdResponse.hasError()) {
+                throw new IOException("Error fetching chain id: " + chainIdResponse.getError().getMessage());
+            }
+            cached = chainIdResponse.getChainId().longValue();
+            chainId = cached;
+        }
+        return cached;
+    }
+
+    private RawTransactionManager transactionManager(Credentials credentials) throws IOException {
+        RawTransactionManager transactionManager = transactionManagers.get(credentials.getAddress());
+        if (transactionManager == null) {
+            long id = getChainId();
+            // Nonces come from the shared NonceManager instead of a PENDING count lookup on every send
+            transactionManager = transactionManagers.computeIfAbsent(credentials.getAddress(),
+                    address -> new RawTransactionManager(web3j, credentials, id) {
+                        @Override
+                        protected BigInteger getNonce() throws IOException {
+                            BigInteger nonce = nonceManager.nextNonce(address);
+                            takenNonce.set(nonce);
+                            return nonce;
+                        }
+                    });
+        }
+        return transactionManager;
+    }
+
+    private void releaseTakenNonce(String address) {
+        BigInteger nonce = takenNonce.get();
+        takenNonce.remove();
+        if (nonce != null) {
+            nonceManager.release(address, nonce);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        HttpService httpService = new HttpService(RPC_URL);
+        Web3j web3j = Web3j.build(Metrics.instrument(httpService));
+        Credentials credentials = Credentials.create(PRIVATE_KEY);
+
+        // Refresh the fee-history gas price every 12 seconds (about one block on Ethereum mainnet)
+        try (FeeHistoryGasStrategy gasStrategy = new FeeHistoryGasStrategy(httpService, 12)) {
+            ContractSender sender = new ContractSender(web3j, gasStrategy);
+
+            // Only the first send fetches the chain id and estimates gas for setValue
+            for (int i = 1; i <= 3; i++) {
+                List<Type> inputParameters = Collections.singletonList(new Uint256(BigInteger.valueOf(i)));
+                Function function = new Function("setValue", inputParameters, Collections.emptyList());
+                String txHash = sender.sendTransaction(credentials, CONTRACT_ADDRESS, function, BigInteger.ZERO);
+                System.out.println("Transaction sent! Tx Hash: " + txHash);
+            }
+        }
+        web3j.shutdown();
+    }
+}
@@ -34,7 +34,10 @@ public class EventListener {
             )
     );
 
-    private static final Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+    private static final Web3j web3j = Web3j.build(Metrics.instrument(new HttpService(RPC_URL)));
+
+    // The newest block seen, only followed while metrics are enabled; used to report how far behind the listener is
+    private volatile long latestBlock = -1;
 
     public void startLogListening() {
         DefaultBlockParameter startBlock = DefaultBlockParameterName.EARLIEST;
@@ -52,11 +55,21 @@ public class EventListener {
                 EventEncoder.encode(VALUE_UPDATED)
         );
 
+        if (Metrics.isEnabled()) {
+            web3j.blockFlowable(false).subscribe(
+                    block -> latestBlock = block.getBlock().getNumber().longValue(),
+                    throwable -> System.err.println("Error polling blocks: " + throwable.getMessage())
+            );
+        }
+
         // Listen to event logs
         Flowable<Log> logFlowable = web3j.ethLogFlowable(filter);
 
         logFlowable.subscribe(
                 log -> {
+                    if (latestBlock >= 0) {
+                        Metrics.recordValue(Metrics.EVENT_LAG, "EventListener", latestBlock - log.getBlockNumber().longValue());
+                    }
                     String eventSignature = log.getTopics().get(0);
                     if (eventSignature.equals(EventEncoder.encode(VALUE_UPDATED))) {
                         valueUpdated(log);
@@ -79,7 +92,9 @@ public class EventListener {
         String updater = "0x" + log.getTopics().get(1).substring(26); // Extract the last 40 characters of the address
 
         // Decode non-indexed parameters `oldValue` and `newValue`
+        long start = Metrics.start();
         List<Type> decoded = FunctionReturnDecoder.decode(log.getData(), VALUE_UPDATED.getNonIndexedParameters());
+        Metrics.record(Metrics.ABI, "decode", start, true);
 
         if (decoded.size() < 2) {
             System.err.println("Decoded data size is incorrect!");
@@ -0,0 +1,273 @@
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.Bytes;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.NumericType;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes event logs whose parameters are all static ABI words (address, bool, intN/uintN, bytesN).
+ * Topic hashes are computed once at registration, logs are dispatched by topic0 through a hash map,
+ * and values are read on demand straight from the hex data instead of building a list of {@link Type} objects.
+ */
+public class EventLogDecoder {
+
+    private static final int WORD_HEX_LENGTH = 64;
+    private static final int ADDRESS_HEX_LENGTH = 40;
+    private static final int DATA_START = CommonConstant.ADDRESS_PREFIX.length();
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    // One reusable holder per thread; handlers must not keep it after they return
+    private final ThreadLocal<DecodedEvent> holders = ThreadLocal.withInitial(DecodedEvent::new);
+
+    public interface Handler {
+        void onEvent(DecodedEvent event);
+    }
+
+    private static class Registration {
+        final Event event;
+        final int indexedCount;
+        final int wordCount;
+        final Handler handler;
+
+        Registration(Event event, Handler handler) {
+            this.event = event;
+            this.indexedCount = event.getIndexedParameters().size();
+            this.wordCount = event.getNonIndexedParameters().size();
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * A decoded log. Indexed parameters are read from topics[1..], non-indexed parameters from the data words.
+     * The same instance is reused for every log decoded on a thread.
+     */
+    public static class DecodedEvent {
+        private Event event;
+        private Log log;
+        private String data;
+        private List<String> topics;
+
+        public Event getEvent() {
+            return event;
+        }
+
+        public Log getLog() {
+            return log;
+        }
+
+        /**
+         * @return The indexed address parameter at the given position (0 is the first indexed parameter).
+         */
+        public String indexedAddress(int index) {
+            return addressFromWord(topics.get(index + 1), DATA_START);
+        }
+
+        /**
+         * @return The indexed unsigned integer parameter at the given position.
+         */
+        public BigInteger indexedUint(int index) {
+            return new BigInteger(topics.get(index + 1).substring(DATA_START), CommonConstant.PRIVATE_KEY_RADIX);
+        }
+
+        /**
+         * @return The non-indexed unsigned integer parameter at the given position.
+         */
+        public BigInteger uint(int index) {
+            int start = wordStart(index);
+            return new BigInteger(data.substring(start, start + WORD_HEX_LENGTH), CommonConstant.PRIVATE_KEY_RADIX);
+        }
+
+        /**
+         * @return The non-indexed signed (two's complement) integer parameter at the given position.
+         */
+        public BigInteger signedInt(int index) {
+            int start = wordStart(index);
+            return new BigInteger(Numeric.hexStringToByteArray(data.substring(start, start + WORD_HEX_LENGTH)));
+        }
+
+        /**
+         * @return The non-indexed unsigned integer parameter at the given position as a long.
+         * @throws ArithmeticException If the value does not fit in a long.
+         */
+        public long uintAsLong(int index) {
+            int start = wordStart(index);
+            // Everything above the low 16 hex digits (64 bits) must be zero, and the top bit must be clear
+            for (int i = start; i < start + WORD_HEX_LENGTH - 16; i++) {
+                if (data.charAt(i) != '0') {
+                    throw new ArithmeticException("uint at word " + index + " does not fit in a long");
+                }
+            }
+            long value = 0;
+            for (int i = start + WORD_HEX_LENGTH - 16; i < start + WORD_HEX_LENGTH; i++) {
+                value = (value << 4) | Character.digit(data.charAt(i), CommonConstant.PRIVATE_KEY_RADIX);
+            }
+            if (value < 0) {
+                throw new ArithmeticException("uint at word " + index + " does not fit in a long");
+            }
+            return value;
+        }
+
+        /**
+         * @return The non-indexed address parameter at the given position (starting with "0x").
+         */
+        public String address(int index) {
+            return addressFromWord(data, wordStart(index));
+        }
+
+        /**
+         * @return The non-indexed bool parameter at the given position.
+         */
+        public boolean bool(int index) {
+            return data.charAt(wordStart(index) + WORD_HEX_LENGTH - 1) != '0';
+        }
+
+        /**
+         * @return The raw 32-byte word at the given position (starting with "0x"), e.g. for bytesN parameters.
+         */
+        public String word(int index) {
+            int start = wordStart(index);
+            return CommonConstant.ADDRESS_PREFIX + data.substring(start, start + WORD_HEX_LENGTH);
+        }
+
+        private int wordStart(int index) {
+            return DATA_START + index * WORD_HEX_LENGTH;
+        }
+
+        private static String addressFromWord(String hex, int wordStart) {
+            return CommonConstant.ADDRESS_PREFIX + hex.substring(wordStart + WORD_HEX_LENGTH - ADDRESS_HEX_LENGTH, wordStart + WORD_HEX_LENGTH);
+        }
+    }
+
+    /**
+     * Registers a handler for an event. The event's topic hash is computed here, once.
+     *
+     * @param event   The event definition; every parameter must be a static single-word type.
+     * @param handler Receives decoded logs of this event.
+     * @throws IllegalArgumentException If a parameter is not a static single-word type.
+     */
+    public void register(Event event, Handler handler) {
+        for (TypeReference<Type> parameter : event.getParameters()) {
+            if (!isStaticWord(parameter)) {
+                throw new IllegalArgumentException("Event " + event.getName() + " has a parameter that is not a static ABI word");
+            }
+        }
+        registrations.put(EventEncoder.encode(event).toLowerCase(Locale.ROOT), new Registration(event, handler));
+    }
+
+    /**
+     * Decodes a log and passes it to the handler registered for its topic0.
+     *
+     * @param log The log to decode.
+     * @return True if a handler was found and the log had the expected shape; false otherwise.
+     */
+    public boolean decode(Log log) {
+        List<String> topics = log.getTopics();
+        if (topics == null || topics.isEmpty()) {
+            return false;
+        }
+        Registration registration = registrations.get(topics.get(0).toLowerCase(Locale.ROOT));
+        if (registration == null) {
+            return false;
+        }
+
+        String data = log.getData();
+        int dataLength = data == null ? 0 : data.length();
+        if (topics.size() != registration.indexedCount + 1
+                || dataLength < DATA_START + registration.wordCount * WORD_HEX_LENGTH) {
+            return false;
+        }
+
+        DecodedEvent holder = holders.get();
+        holder.event = registration.event;
+        holder.log = log;
+        holder.data = data;
+        holder.topics = topics;
+        registration.handler.onEvent(holder);
+        return true;
+    }
+
+    private static boolean isStaticWord(TypeReference<Type> parameter) {
+        try {
+            Class<?> type = parameter.getClassType();
+            return Address.class.isAssignableFrom(type)
+                    || Bool.class.isAssignableFrom(type)
+                    || NumericType.class.isAssignableFrom(type)
+                    || Bytes.class.isAssignableFrom(type);
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) {
+        EventLogDecoder decoder = new EventLogDecoder();
+        long[] checksum = new long[1];
+        decoder.register(EventListener.VALUE_UPDATED, event -> {
+            String updater = event.indexedAddress(0);
+            BigInteger oldValue = event.uint(0);
+            BigInteger newValue = event.uint(1);
+            checksum[0] += updater.length() + oldValue.longValue() + newValue.longValue();
+        });
+
+        // Build a batch of synthetic ValueUpdated logs
+        String topic0 = EventEncoder.encode(EventListener.VALUE_UPDATED);
+        String updaterTopic = "0x0000000000000000000000004dc2739b3de594754066357e54bfce70167b3f99";
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Log log = new Log();
+            log.setTopics(Arrays.asList(topic0, updaterTopic));
+            log.setData("0x" + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(i), WORD_HEX_LENGTH)
+                    + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(i + 1), WORD_HEX_LENGTH));
+            logs.add(log);
+        }
+
+        List<TypeReference<Type>> nonIndexed = EventListener.VALUE_UPDATED.getNonIndexedParameters();
+        int rounds = 20;
+        long genericNanos = 0;
+        long decoderNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            // The current path: hash the event per log, slice the topic, decode through the generic decoder
+            long start = System.nanoTime();
+            for (Log log : logs) {
+                if (log.getTopics().get(0).equals(EventEncoder.encode(EventListener.VALUE_UPDATED))) {
+                    String updater = "0x" + log.getTopics().get(1).substring(26);
+                    List<Type> decoded = FunctionReturnDecoder.decode(log.getData(), nonIndexed);
+                    checksum[0] += updater.length() + ((BigInteger) decoded.get(0).getValue()).longValue()
+                            + ((BigInteger) decoded.get(1).getValue()).longValue();
+                }
+            }
+            genericNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Log log : logs) {
+                decoder.decode(log);
+            }
+            decoderNanos += System.nanoTime() - start;
+        }
+
+        long total = (long) logs.size() * rounds;
+        System.out.println("Generic path: " + total * 1_000_000_000L / Math.max(genericNanos, 1) + " logs/sec");
+        System.out.println("EventLogDecoder: " + total * 1_000_000_000L / Math.max(decoderNanos, 1) + " logs/sec");
+        System.out.println("Checksum: " + checksum[0]);
+
+        // Unregistered events are skipped
+        Log unknown = new Log();
+        unknown.setTopics(Collections.singletonList(Numeric.toHexStringWithPrefixZeroPadded(BigInteger.ZERO, WORD_HEX_LENGTH)));
+        System.out.println("Unknown event decoded: " + decoder.decode(unknown));
+    }
+}
@@ -0,0 +1,245 @@
+import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.web3j.crypto.ECDSASignature;
+import org.web3j.crypto.Sign;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+public class FastSignature {
+
+    private static final byte[] MESSAGE_PREFIX = "\u0019Ethereum Signed Message:\n".getBytes(StandardCharsets.UTF_8);
+    private static final int HASH_BYTE_LENGTH = 32;
+    private static final int ADDRESS_HEX_LENGTH = CommonConstant.ADDRESS_PREFIX.length() + CommonConstant.ADDRESS_BYTE_LENGTH * 2;
+    private static final int MAX_RECOVERY_HEADER = 34;
+
+    // Per-thread scratch space, reused by every call made on that thread
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private static class Buffers {
+        final KeccakDigest keccak = new KeccakDigest(256);
+        final byte[] signature = new byte[CommonConstant.SIGNATURE_BYTE_LENGTH];
+        final byte[] r = new byte[CommonConstant.R_END_INDEX - CommonConstant.R_START_INDEX];
+        final byte[] s = new byte[CommonConstant.S_END_INDEX - CommonConstant.S_START_INDEX];
+        final byte[] hash = new byte[HASH_BYTE_LENGTH];
+        final byte[] publicKey = new byte[CommonConstant.PUBLIC_KEY_BYTE_LENGTH];
+        final byte[] lengthDigits = new byte[10];
+        byte[] message = new byte[256];
+    }
+
+    /**
+     * Validates a given signature against the specified message and wallet address.
+     * Gives the same results as {@link Signature#isSignatureValid(String, String, String)} on a UTF-8 platform,
+     * but decodes into reusable thread-local buffers and hashes the prefixed message in place.
+     * Signatures containing non-hex characters are rejected.
+     *
+     * @param signature     The digital signature to validate, in hexadecimal format.
+     * @param message       The message (original message) that was signed.
+     * @param walletAddress The wallet address expected to match the signature (starting with "0x").
+     * @return              True if the signature is valid and corresponds to the wallet
+     *                      address; false otherwise.
+     */
+    public static boolean isSignatureValid(String signature, String message, String walletAddress) {
+        // Checked one by one, StringUtils.isAnyBlank would allocate a varargs array on every call
+        if (StringUtils.isBlank(signature) || StringUtils.isBlank(message) || StringUtils.isBlank(walletAddress)) {
+            return false;
+        }
+        if (walletAddress.length() != ADDRESS_HEX_LENGTH || !hasHexPrefix(walletAddress)) {
+            return false;
+        }
+
+        Buffers buffers = BUFFERS.get();
+
+        // Decode the signature hex straight into the reusable signature buffer
+        int hexStart = hasHexPrefix(signature) ? CommonConstant.ADDRESS_PREFIX.length() : 0;
+        int hexLength = signature.length() - hexStart;
+        if ((hexLength + 1) / 2 != CommonConstant.SIGNATURE_BYTE_LENGTH
+                || !decodeHex(signature, hexStart, buffers.signature)) {
+            return false;
+        }
+
+        byte v = buffers.signature[CommonConstant.V_INDEX];
+        if (v < CommonConstant.V_LOWER_BOUND) {
+            v += CommonConstant.V_BASE;
+        }
+        int header = v & 0xFF;
+        if (header < CommonConstant.V_BASE || header > MAX_RECOVERY_HEADER) {
+            return false;
+        }
+        System.arraycopy(buffers.signature, CommonConstant.R_START_INDEX, buffers.r, 0, buffers.r.length);
+        System.arraycopy(buffers.signature, CommonConstant.S_START_INDEX, buffers.s, 0, buffers.s.length);
+
+        prefixedMessageHash(message, buffers);
+
+        BigInteger publicKey;
+        try {
+            publicKey = Sign.recoverFromSignature(
+                    header - CommonConstant.V_BASE,
+                    new ECDSASignature(new BigInteger(1, buffers.r), new BigInteger(1, buffers.s)),
+                    buffers.hash
+            );
+        } catch (IllegalArgumentException e) {
+            // Thrown for an r that is not the x-coordinate of a curve point, e.g. r = 5 or an all-zero signature
+            return false;
+        }
+        if (publicKey == null) {
+            return false;
+        }
+
+        // Keccak the 64-byte public key and compare its last 20 bytes with the address nibbles
+        writePadded(publicKey, buffers.publicKey);
+        KeccakDigest keccak = buffers.keccak;
+        keccak.update(buffers.publicKey, 0, buffers.publicKey.length);
+        keccak.doFinal(buffers.hash, 0);
+        int offset = HASH_BYTE_LENGTH - CommonConstant.ADDRESS_BYTE_LENGTH;
+        for (int i = 0; i < CommonConstant.ADDRESS_BYTE_LENGTH; i++) {
+            int high = Character.digit(walletAddress.charAt(2 + 2 * i), CommonConstant.PRIVATE_KEY_RADIX);
+            int low = Character.digit(walletAddress.charAt(3 + 2 * i), CommonConstant.PRIVATE_KEY_RADIX);
+            if (high < 0 || low < 0 || ((high << 4) | low) != (buffers.hash[offset + i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the EIP-191 hash of a message, i.e. Keccak-256 of
+     * "\x19Ethereum Signed Message:\n" + length + message, without building the prefixed message.
+     *
+     * @param message The message to hash.
+     * @return        The 32-byte message hash.
+     */
+    public static byte[] prefixedMessageHash(String message) {
+        Buffers buffers = BUFFERS.get();
+        prefixedMessageHash(message, buffers);
+        return buffers.hash.clone();
+    }
+
+    private static void prefixedMessageHash(String message, Buffers buffers) {
+        int messageLength = encodeUtf8(message, buffers);
+
+        // Write the decimal length backwards into the digit buffer
+        int digitStart = buffers.lengthDigits.length;
+        int remaining = messageLength;
+        do {
+            buffers.lengthDigits[--digitStart] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+
+        KeccakDigest keccak = buffers.keccak;
+        keccak.update(MESSAGE_PREFIX, 0, MESSAGE_PREFIX.length);
+        keccak.update(buffers.lengthDigits, digitStart, buffers.lengthDigits.length - digitStart);
+        keccak.update(buffers.message, 0, messageLength);
+        keccak.doFinal(buffers.hash, 0);
+    }
+
+    /**
+     * Encodes the message as UTF-8 into the thread's message buffer, growing it only when a longer
+     * message is seen. Unpaired surrogates become '?', as with {@link String#getBytes()}.
+     */
+    private static int encodeUtf8(String message, Buffers buffers) {
+        int maxLength = message.length() * 3;
+        if (buffers.message.length < maxLength) {
+            buffers.message = new byte[Math.max(maxLength, buffers.message.length * 2)];
+        }
+        byte[] out = buffers.message;
+        int position = 0;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < message.length()
+                    && Character.isLowSurrogate(message.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, message.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[position++] = '?';
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Decodes hex characters from the given offset into the output buffer, matching
+     * {@link org.web3j.utils.Numeric#hexStringToByteArray(String)} for odd-length input.
+     */
+    private static boolean decodeHex(String hex, int start, byte[] out) {
+        int position = start;
+        int index = 0;
+        if ((hex.length() - start) % 2 != 0) {
+            int low = Character.digit(hex.charAt(position++), CommonConstant.PRIVATE_KEY_RADIX);
+            if (low < 0) {
+                return false;
+            }
+            out[index++] = (byte) low;
+        }
+        while (position < hex.length()) {
+            int high = Character.digit(hex.charAt(position++), CommonConstant.PRIVATE_KEY_RADIX);
+            int low = Character.digit(hex.charAt(position++), CommonConstant.PRIVATE_KEY_RADIX);
+            if (high < 0 || low < 0) {
+                return false;
+            }
+            out[index++] = (byte) ((high << 4) | low);
+        }
+        return true;
+    }
+
+    private static void writePadded(BigInteger value, byte[] out) {
+        byte[] bytes = value.toByteArray();
+        // toByteArray may carry a leading sign byte or be shorter than the target width
+        int sourceStart = bytes.length > out.length ? bytes.length - out.length : 0;
+        int length = bytes.length - sourceStart;
+        int destinationStart = out.length - length;
+        for (int i = 0; i < destinationStart; i++) {
+            out[i] = 0;
+        }
+        System.arraycopy(bytes, sourceStart, out, destinationStart, length);
+    }
+
+    private static boolean hasHexPrefix(String value) {
+        return value.length() > 1 && value.charAt(0) == '0' && (value.charAt(1) == 'x' || value.charAt(1) == 'X');
+    }
+
+    public static void main(String[] args) {
+        // Define the private key and wallet address, change to your own
+        String privateKeyHex = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+        String walletAddress = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+        String message = "2778f9e5-5992-4b06-8a8f-85135d687cff";
+        String signature = Signature.signPrefixedMessage(privateKeyHex, message);
+
+        // Both paths must agree
+        System.out.println("Signature.isSignatureValid: " + Signature.isSignatureValid(signature, message, walletAddress));
+        System.out.println("FastSignature.isSignatureValid: " + isSignatureValid(signature, message, walletAddress));
+
+        // Compare bytes allocated per verification on this thread (HotSpot only)
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int iterations = 5000;
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            Signature.isSignatureValid(signature, message, walletAddress);
+        }
+        long defaultBytes = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            isSignatureValid(signature, message, walletAddress);
+        }
+        long fastBytes = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        System.out.println("Signature.isSignatureValid allocates ~" + defaultBytes / iterations + " bytes/op");
+        System.out.println("FastSignature.isSignatureValid allocates ~" + fastBytes / iterations + " bytes/op");
+    }
+}
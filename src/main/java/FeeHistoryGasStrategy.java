@@ -0,0 +1,202 @@
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthGasPrice;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A gas strategy that derives the gas price from eth_feeHistory, refreshed in the background,
+ * and caches eth_estimateGas results per (contract, function selector).
+ * <p>
+ * web3j 5.0.0 cannot sign London (type 2) transactions, so the EIP-1559 fee is applied as a legacy
+ * gas price: the next block's base fee with one block of headroom, plus the median priority fee
+ * paid over the last few blocks. Nodes without eth_feeHistory fall back to eth_gasPrice.
+ */
+public class FeeHistoryGasStrategy implements ContractSender.GasStrategy, AutoCloseable {
+
+    private static final int FEE_HISTORY_BLOCK_COUNT = 10;
+    private static final int PRIORITY_FEE_PERCENTILE = 50;
+    // The base fee can rise by at most 12.5% per block
+    private static final BigInteger BASE_FEE_HEADROOM_NUMERATOR = BigInteger.valueOf(9);
+    private static final BigInteger BASE_FEE_HEADROOM_DENOMINATOR = BigInteger.valueOf(8);
+    // Estimates are padded by 20% because gas used can vary with arguments and contract state
+    private static final BigInteger GAS_LIMIT_HEADROOM_PERCENT = BigInteger.valueOf(120);
+    private static final int SELECTOR_HEX_LENGTH = 10;
+
+    private final Web3jService web3jService;
+    private final Web3j web3j;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, BigInteger> gasLimits = new ConcurrentHashMap<>();
+    private volatile BigInteger gasPrice;
+
+    /**
+     * eth_feeHistory result, see https://ethereum.github.io/execution-apis/api-documentation/
+     */
+    public static class FeeHistory {
+        private String oldestBlock;
+        private List<String> baseFeePerGas;
+        private List<Double> gasUsedRatio;
+        private List<List<String>> reward;
+
+        public String getOldestBlock() {
+            return oldestBlock;
+        }
+
+        public void setOldestBlock(String oldestBlock) {
+            this.oldestBlock = oldestBlock;
+        }
+
+        public List<String> getBaseFeePerGas() {
+            return baseFeePerGas;
+        }
+
+        public void setBaseFeePerGas(List<String> baseFeePerGas) {
+            this.baseFeePerGas = baseFeePerGas;
+        }
+
+        public List<Double> getGasUsedRatio() {
+            return gasUsedRatio;
+        }
+
+        public void setGasUsedRatio(List<Double> gasUsedRatio) {
+            this.gasUsedRatio = gasUsedRatio;
+        }
+
+        public List<List<String>> getReward() {
+            return reward;
+        }
+
+        public void setReward(List<List<String>> reward) {
+            this.reward = reward;
+        }
+    }
+
+    public static class EthFeeHistory extends Response<FeeHistory> {
+    }
+
+    /**
+     * @param web3jService         The service used for eth_feeHistory and eth_estimateGas.
+     * @param refreshPeriodSeconds How often the gas price is refreshed in the background.
+     */
+    public FeeHistoryGasStrategy(Web3jService web3jService, long refreshPeriodSeconds) {
+        this.web3jService = web3jService;
+        this.web3j = Web3j.build(web3jService);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fee-history-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (IOException | RuntimeException e) {
+                // Keep serving the last known price; the next run tries again
+                System.err.println("Error refreshing gas price: " + e.getMessage());
+            }
+        }, 0, refreshPeriodSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public BigInteger gasPrice() throws IOException {
+        BigInteger current = gasPrice;
+        if (current == null) {
+            // First send raced the initial background refresh
+            current = refresh();
+        }
+        return current;
+    }
+
+    @Override
+    public BigInteger gasLimit(String from, String to, String encodedFunction) throws IOException {
+        String key = to.toLowerCase(Locale.ROOT) + encodedFunction.substring(0, Math.min(SELECTOR_HEX_LENGTH, encodedFunction.length()));
+        BigInteger cached = gasLimits.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        EthEstimateGas estimate = web3j.ethEstimateGas(
+                Transaction.createEthCallTransaction(from, to, encodedFunction)).send();
+        if (estimate.hasError()) {
+            throw new IOException("Error estimating gas: " + estimate.getError().getMessage());
+        }
+        BigInteger gasLimit = estimate.getAmountUsed().multiply(GAS_LIMIT_HEADROOM_PERCENT).divide(BigInteger.valueOf(100));
+        gasLimits.putIfAbsent(key, gasLimit);
+        return gasLimit;
+    }
+
+    /**
+     * Forgets all cached gas estimates, e.g. after a contract upgrade.
+     */
+    public void invalidateGasEstimates() {
+        gasLimits.clear();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private BigInteger refresh() throws IOException {
+        Request<Object, EthFeeHistory> request = new Request<>(
+                "eth_feeHistory",
+                Arrays.asList(
+                        Numeric.encodeQuantity(BigInteger.valueOf(FEE_HISTORY_BLOCK_COUNT)),
+                        DefaultBlockParameterName.LATEST.getValue(),
+                        Collections.singletonList(PRIORITY_FEE_PERCENTILE)),
+                web3jService,
+                EthFeeHistory.class);
+        EthFeeHistory response = request.send();
+
+        BigInteger price;
+        if (response.hasError() || response.getResult() == null || response.getResult().getBaseFeePerGas() == null
+                || response.getResult().getBaseFeePerGas().isEmpty()) {
+            EthGasPrice ethGasPrice = web3j.ethGasPrice().send();
+            if (ethGasPrice.hasError()) {
+                throw new IOException("Error fetching gas price: " + ethGasPrice.getError().getMessage());
+            }
+            price = ethGasPrice.getGasPrice();
+        } else {
+            FeeHistory feeHistory = response.getResult();
+            // The last entry is the base fee of the block after the newest one in the range
+            List<String> baseFees = feeHistory.getBaseFeePerGas();
+            BigInteger nextBaseFee = Numeric.decodeQuantity(baseFees.get(baseFees.size() - 1));
+            price = nextBaseFee.multiply(BASE_FEE_HEADROOM_NUMERATOR).divide(BASE_FEE_HEADROOM_DENOMINATOR)
+                    .add(medianPriorityFee(feeHistory));
+        }
+        gasPrice = price;
+        return price;
+    }
+
+    private static BigInteger medianPriorityFee(FeeHistory feeHistory) {
+        if (feeHistory.getReward() == null) {
+            return BigInteger.ZERO;
+        }
+        List<BigInteger> rewards = new ArrayList<>();
+        for (List<String> blockRewards : feeHistory.getReward()) {
+            if (blockRewards != null && !blockRewards.isEmpty()) {
+                rewards.add(Numeric.decodeQuantity(blockRewards.get(0)));
+            }
+        }
+        if (rewards.isEmpty()) {
+            return BigInteger.ZERO;
+        }
+        Collections.sort(rewards);
+        return rewards.get(rewards.size() / 2);
+    }
+}
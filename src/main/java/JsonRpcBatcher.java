@@ -0,0 +1,244 @@
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Convert;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JsonRpcBatcher implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL"; // Test RPC URL, e.g., https://sepolia.optimism.io
+
+    private final Web3j web3j;
+    private final Web3jService web3jService;
+    private final int batchSize;
+    private final Semaphore inFlight;
+    private final ConcurrentLinkedQueue<PendingRequest<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "json-rpc-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static class PendingRequest<T extends Response<?>> {
+        final Request<?, T> request;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        PendingRequest(Request<?, T> request) {
+            this.request = request;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Response<?> response) {
+            future.complete((T) response);
+        }
+    }
+
+    /**
+     * Creates a batcher that groups requests into JSON-RPC batch arrays.
+     *
+     * @param web3jService  The service the batches are sent through, e.g. an HttpService.
+     * @param batchSize     The maximum number of requests in one batch.
+     * @param maxInFlight   The maximum number of batches awaiting a response at the same time.
+     */
+    public JsonRpcBatcher(Web3jService web3jService, int batchSize, int maxInFlight) {
+        if (batchSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("batchSize and maxInFlight must be positive");
+        }
+        this.web3jService = web3jService;
+        this.web3j = Web3j.build(web3jService);
+        this.batchSize = batchSize;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Queues a request for the next batch. A batch is sent as soon as batchSize requests are queued,
+     * or when {@link #flush()} is called.
+     *
+     * @param request A request built from any Web3j instance, e.g. web3j.ethGetBalance(...).
+     * @return A future completed with the response whose id matches the request's id.
+     */
+    public <T extends Response<?>> CompletableFuture<T> submit(Request<?, T> request) {
+        PendingRequest<T> pending = new PendingRequest<>(request);
+        queue.add(pending);
+        if (queued.incrementAndGet() >= batchSize) {
+            flusher.execute(this::drainFullBatches);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Queues an eth_getBalance request.
+     *
+     * @param address The Ethereum address whose balance is to be retrieved.
+     * @param block   The block to read the balance at.
+     * @return A future completed with the balance in Wei.
+     */
+    public CompletableFuture<BigInteger> getBalance(String address, DefaultBlockParameter block) {
+        return submit(web3j.ethGetBalance(address, block)).thenApply(response -> {
+            throwIfError(response);
+            return response.getBalance();
+        });
+    }
+
+    /**
+     * Queues an eth_call request.
+     *
+     * @param transaction The call, e.g. Transaction.createEthCallTransaction(from, to, encodedFunction).
+     * @param block       The block to execute the call at.
+     * @return A future completed with the raw value returned by the contract.
+     */
+    public CompletableFuture<String> call(Transaction transaction, DefaultBlockParameter block) {
+        return submit(web3j.ethCall(transaction, block)).thenApply(response -> {
+            throwIfError(response);
+            return response.getValue();
+        });
+    }
+
+    /**
+     * Sends every queued request now, without waiting for a full batch.
+     */
+    public void flush() {
+        flusher.execute(() -> drain(true));
+    }
+
+    @Override
+    public void close() {
+        flush();
+        flusher.shutdown();
+    }
+
+    private void drainFullBatches() {
+        drain(false);
+    }
+
+    private void drain(boolean includePartial) {
+        while (queued.get() >= batchSize || (includePartial && queued.get() > 0)) {
+            List<PendingRequest<?>> batch = new ArrayList<>(batchSize);
+            PendingRequest<?> pending;
+            while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+
+            // Holds further batches back while maxInFlight batches are awaiting a response
+            inFlight.acquireUninterruptibly();
+            sendBatches(batch);
+        }
+    }
+
+    private void sendBatches(List<PendingRequest<?>> batch) {
+        // web3j parses every entry of a batch response with the type of the request in the same position,
+        // so each request type goes out in its own JSON-RPC array
+        Map<Class<?>, List<PendingRequest<?>>> byResponseType = new LinkedHashMap<>();
+        for (PendingRequest<?> pending : batch) {
+            byResponseType.computeIfAbsent(pending.request.getResponseType(), type -> new ArrayList<>()).add(pending);
+        }
+        AtomicInteger remaining = new AtomicInteger(byResponseType.size());
+        for (List<PendingRequest<?>> group : byResponseType.values()) {
+            BatchRequest batchRequest = new BatchRequest(web3jService);
+            for (PendingRequest<?> pending : group) {
+                batchRequest.add(pending.request);
+            }
+            CompletableFuture<BatchResponse> sent;
+            try {
+                sent = batchRequest.sendAsync();
+            } catch (RuntimeException e) {
+                sent = new CompletableFuture<>();
+                sent.completeExceptionally(e);
+            }
+            sent.whenComplete((batchResponse, throwable) -> {
+                try {
+                    if (throwable != null) {
+                        failAll(group, throwable);
+                    } else if (batchResponse == null || batchResponse.getResponses() == null) {
+                        failAll(group, new IOException("Empty response to a batch of " + group.size() + " requests"));
+                    } else {
+                        completeById(group, batchResponse.getResponses());
+                    }
+                } catch (RuntimeException e) {
+                    // Whatever went wrong while matching, no caller may be left waiting on join()
+                    failAll(group, e);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        inFlight.release();
+                    }
+                }
+            });
+        }
+    }
+
+    private static void failAll(List<PendingRequest<?>> group, Throwable throwable) {
+        // Futures that were already completed keep their result
+        group.forEach(pending -> pending.future.completeExceptionally(throwable));
+    }
+
+    private static void completeById(List<PendingRequest<?>> group, List<? extends Response<?>> responses) {
+        // Nodes may answer a batch in any order, so responses are matched to requests by id
+        Map<Long, Response<?>> responsesById = new HashMap<>();
+        for (Response<?> response : responses) {
+            responsesById.put(response.getId(), response);
+        }
+        for (PendingRequest<?> pending : group) {
+            Response<?> response = responsesById.get(pending.request.getId());
+            if (response == null) {
+                pending.future.completeExceptionally(
+                        new IOException("No response for request id " + pending.request.getId()));
+            } else {
+                pending.complete(response);
+            }
+        }
+    }
+
+    private static void throwIfError(Response<?> response) {
+        if (response.hasError()) {
+            throw new CompletionException(new IOException("JSON-RPC error: " + response.getError().getMessage()));
+        }
+    }
+
+    public static void main(String[] args) {
+        // Addresses to reconcile, change to your own
+        List<String> addresses = new ArrayList<>();
+        addresses.add("0x4dc2739b3de594754066357e54bfce70167b3f99");
+        addresses.add("0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d");
+
+        // Up to 100 requests per batch and 4 batches on the wire at once
+        try (JsonRpcBatcher batcher = new JsonRpcBatcher(new HttpService(RPC_URL), 100, 4)) {
+            Map<String, CompletableFuture<BigInteger>> balances = new LinkedHashMap<>();
+            for (String address : addresses) {
+                balances.put(address, batcher.getBalance(address, DefaultBlockParameterName.LATEST));
+            }
+            batcher.flush();
+
+            balances.forEach((address, balance) -> {
+                BigDecimal balanceInEther = Convert.fromWei(new BigDecimal(balance.join()), Convert.Unit.ETHER);
+                System.out.println("Balance of " + address + ": " + balanceInEther);
+            });
+        }
+    }
+}
@@ -0,0 +1,296 @@
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+public class LogBackfill implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL";
+    private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
+
+    // Phrases providers use when the caller is being throttled. Checked before the range hints,
+    // since messages such as "rate limit exceeded" would otherwise look like a range error.
+    private static final String[] RATE_LIMIT_HINTS = {
+            "rate limit", "rate-limit", "ratelimit", "too many requests", "throttl", "capacity"
+    };
+    // HTTP 429 as a standalone number, e.g. "Invalid response received: 429", but not the digits inside a hex value
+    private static final Pattern TOO_MANY_REQUESTS_STATUS = Pattern.compile("(?<![0-9a-z])429(?![0-9a-z])",
+            Pattern.CASE_INSENSITIVE);
+    // Phrases providers use when a block range or result set is too large
+    private static final String[] RANGE_ERROR_HINTS = {
+            "range", "limit", "too many", "exceed", "response size", "timeout", "timed out"
+    };
+    // A throttled range is retried unchanged this many times, waiting twice as long each time
+    private static final int MAX_RATE_LIMIT_RETRIES = 6;
+    private static final long RATE_LIMIT_BACKOFF_MS = 500;
+    // After this many chunks in a row succeed the chunk size is doubled again
+    private static final int SUCCESSES_BEFORE_GROWTH = 4;
+
+    private final Web3j web3j;
+    private final List<String> addresses;
+    private final List<String> topics;
+    private final Path checkpointFile;
+    private final long maxChunkSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final AtomicLong chunkSize;
+    private int consecutiveSuccesses;
+
+    /**
+     * Creates a backfill engine for logs emitted by the given contracts.
+     *
+     * @param web3j          The Web3j instance used for eth_getLogs.
+     * @param addresses      The contract addresses to fetch logs for.
+     * @param topics         The accepted topic0 values (event signatures); empty for all events.
+     * @param checkpointFile The file the last processed block number is stored in, or null to keep no checkpoint.
+     * @param maxChunkSize   The largest block range requested in one eth_getLogs call.
+     * @param parallelism    How many chunks are fetched at the same time.
+     */
+    public LogBackfill(Web3j web3j, List<String> addresses, List<String> topics, Path checkpointFile,
+                       long maxChunkSize, int parallelism) {
+        this.web3j = web3j;
+        this.addresses = addresses;
+        this.topics = topics;
+        this.checkpointFile = checkpointFile;
+        this.maxChunkSize = maxChunkSize;
+        this.parallelism = parallelism;
+        this.chunkSize = new AtomicLong(maxChunkSize);
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "log-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Delivers every matching log between fromBlock and toBlock in block order, resuming after the
+     * checkpointed block if an earlier run already processed part of the range.
+     *
+     * @param fromBlock The first block to backfill (used when there is no checkpoint yet).
+     * @param toBlock   The last block to backfill.
+     * @param handler   Receives the logs in order, on the calling thread.
+     * @return The last block processed, which is also the stored checkpoint.
+     * @throws IOException If a chunk cannot be fetched even at a single-block range, or the checkpoint cannot be written.
+     */
+    public long backfill(long fromBlock, long toBlock, Consumer<Log> handler) throws IOException {
+        long checkpoint = readCheckpoint();
+        long nextStart = Math.max(fromBlock, checkpoint + 1);
+
+        // Chunks are fetched in parallel but delivered strictly in the order they were scheduled
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        while (nextStart <= toBlock || !inFlight.isEmpty()) {
+            while (inFlight.size() < parallelism && nextStart <= toBlock) {
+                long end = Math.min(toBlock, nextStart + chunkSize.get() - 1);
+                inFlight.add(new Chunk(nextStart, end));
+                nextStart = end + 1;
+            }
+
+            Chunk chunk = inFlight.poll();
+            List<Log> logs;
+            try {
+                logs = chunk.logs.join();
+            } catch (CompletionException e) {
+                inFlight.forEach(pending -> pending.logs.cancel(true));
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+            logs.forEach(handler);
+            writeCheckpoint(chunk.to);
+            checkpoint = chunk.to;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return The last processed block stored in the checkpoint file, or -1 if there is none.
+     * @throws IOException If the checkpoint file exists but cannot be read.
+     */
+    public long readCheckpoint() throws IOException {
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return -1;
+        }
+        String content = new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim();
+        return content.isEmpty() ? -1 : Long.parseLong(content);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void writeCheckpoint(long block) throws IOException {
+        if (checkpointFile == null) {
+            return;
+        }
+        // Write to a temporary file first so a crash never leaves a half-written checkpoint behind
+        Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.write(temporary, Long.toString(block).getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private class Chunk {
+        final long from;
+        final long to;
+        final CompletableFuture<List<Log>> logs;
+
+        Chunk(long from, long to) {
+            this.from = from;
+            this.to = to;
+            this.logs = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return fetch(from, to);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor).handle((result, throwable) -> {
+                if (throwable != null) {
+                    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    throw new CompletionException(cause instanceof UncheckedIOException ? cause.getCause() : cause);
+                }
+                return result;
+            });
+        }
+    }
+
+    private List<Log> fetch(long from, long to) throws IOException {
+        EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(from)),
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(to)),
+                addresses
+        );
+        if (!topics.isEmpty()) {
+            filter.addOptionalTopics(topics.toArray(new String[0]));
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            EthLog response;
+            String errorMessage;
+            Exception failure = null;
+            try {
+                response = web3j.ethGetLogs(filter).send();
+                errorMessage = response.hasError() ? response.getError().getMessage() : null;
+            } catch (IOException | ClientConnectionException e) {
+                // HttpService reports non-2xx HTTP statuses (429, 503, ...) with ClientConnectionException
+                response = null;
+                errorMessage = e.getMessage();
+                failure = e;
+            }
+
+            if (errorMessage == null && response != null) {
+                onSuccess();
+                List<Log> logs = new ArrayList<>(response.getLogs().size());
+                for (EthLog.LogResult<?> result : response.getLogs()) {
+                    logs.add((Log) result.get());
+                }
+                return logs;
+            }
+            if (isRateLimited(errorMessage)) {
+                if (attempt >= MAX_RATE_LIMIT_RETRIES) {
+                    throw new IOException("Still rate limited fetching logs for blocks " + from + "-" + to
+                            + " after " + attempt + " retries: " + errorMessage, failure);
+                }
+                backOff(attempt);
+                continue;
+            }
+            if (from < to && matches(errorMessage, RANGE_ERROR_HINTS)) {
+                return split(from, to);
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            throw new IOException("Error fetching logs for blocks " + from + "-" + to + ": " + errorMessage, failure);
+        }
+    }
+
+    private static void backOff(int attempt) throws IOException {
+        try {
+            Thread.sleep(RATE_LIMIT_BACKOFF_MS << attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while backing off from a rate limit", e);
+        }
+    }
+
+    private List<Log> split(long from, long to) throws IOException {
+        // Shrink the chunk size for chunks scheduled from now on, then retry this range as two halves
+        long half = (to - from + 1) / 2;
+        chunkSize.accumulateAndGet(Math.max(1, half), Math::min);
+        synchronized (this) {
+            consecutiveSuccesses = 0;
+        }
+        long middle = from + half - 1;
+        List<Log> logs = new ArrayList<>(fetch(from, middle));
+        logs.addAll(fetch(middle + 1, to));
+        return Collections.unmodifiableList(logs);
+    }
+
+    private synchronized void onSuccess() {
+        if (++consecutiveSuccesses >= SUCCESSES_BEFORE_GROWTH) {
+            consecutiveSuccesses = 0;
+            chunkSize.updateAndGet(size -> Math.min(maxChunkSize, size * 2));
+        }
+    }
+
+    private static boolean isRateLimited(String message) {
+        return matches(message, RATE_LIMIT_HINTS)
+                || (message != null && TOO_MANY_REQUESTS_STATUS.matcher(message).find());
+    }
+
+    private static boolean matches(String message, String[] hints) {
+        if (message == null) {
+            return false;
+        }
+        String lowerCase = message.toLowerCase(Locale.ROOT);
+        for (String hint : hints) {
+            if (lowerCase.contains(hint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+        long latestBlock = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+
+        // Backfill ValueUpdated events in chunks of up to 10,000 blocks, 4 chunks at a time
+        try (LogBackfill backfill = new LogBackfill(
+                web3j,
+                Collections.singletonList(CONTRACT_ADDRESS),
+                Collections.singletonList(EventEncoder.encode(EventListener.VALUE_UPDATED)),
+                Paths.get("value-updated.checkpoint"),
+                10_000,
+                4)) {
+            long lastBlock = backfill.backfill(0, latestBlock, log ->
+                    System.out.println("Block " + log.getBlockNumber() + ", tx " + log.getTransactionHash()));
+            System.out.println("Backfilled up to block " + lastBlock
+                    + "; live listening can start from block " + (lastBlock + 1));
+        }
+        web3j.shutdown();
+    }
+}
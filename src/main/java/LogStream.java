@@ -0,0 +1,463 @@
+import io.reactivex.disposables.CompositeDisposable;
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthSubscribe;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.protocol.websocket.WebSocketService;
+import org.web3j.protocol.websocket.events.NewHead;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams contract logs and new block heads either by polling over HTTP, as {@link EventListener} does, or pushed
+ * over a WebSocket with eth_subscribe. The WebSocket mode reconnects by itself and fetches the blocks it missed
+ * while disconnected with eth_getLogs, so handlers see every log once in both modes.
+ * Otherwise the WebSocket mode only calls eth_getLogs after a chain reorganization: when the node pushes a removed
+ * log, or a new head does not extend the recorded chain, the blocks from the fork point on are fetched again.
+ * Delivered logs that are no longer in those blocks are delivered once more with removed=true, and the logs that
+ * replaced them are delivered as new logs.
+ */
+public class LogStream implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL";
+    private static final String WS_RPC_URL = "WS_RPC_URL"; // e.g., wss://eth-sepolia.g.alchemy.com/v2/<key>
+    private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
+
+    // The largest block range fetched in one eth_getLogs call when catching up
+    private static final long CATCH_UP_CHUNK_SIZE = 2_000;
+    // Delivered logs and block hashes are kept this many blocks below the newest head; deeper reorganizations are missed
+    private static final long RETAINED_BLOCKS = 64;
+
+    public enum Transport {
+        HTTP_POLLING, WEBSOCKET;
+
+        /**
+         * Reads the transport from the "eth.transport" system property or, if it is not set, the ETH_TRANSPORT
+         * environment variable (HTTP_POLLING or WEBSOCKET). Defaults to HTTP_POLLING.
+         */
+        public static Transport fromConfig() {
+            String value = System.getProperty("eth.transport", System.getenv("ETH_TRANSPORT"));
+            return value == null || value.trim().isEmpty()
+                    ? HTTP_POLLING : Transport.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // web3j's own LogNotification drops the "removed" flag, so logs are read into the full response type instead
+    private static class FullLogNotification extends Notification<Log> {
+    }
+
+    private final Transport transport;
+    private final String url;
+    private final List<String> addresses;
+    private final List<String> topics;
+    private final long pollIntervalMs;
+    private final long reconnectDelayMs;
+
+    // Handlers, reconnects and all state below run on this one thread
+    private final ScheduledExecutorService streamExecutor;
+    private Consumer<Log> logHandler;
+    private LongConsumer headHandler;
+    private boolean closed;
+
+    private Web3j web3j;
+    private WebSocketService webSocketService;
+    private LogBackfill backfill;
+    private CompositeDisposable subscriptions = new CompositeDisposable();
+
+    // The catch-up after the next (re)connect fetches logs from this block on; all older logs have been delivered
+    private long resumeBlock;
+    // Recently delivered logs by block and key, so a catch-up never repeats them and a reorganization can remove them
+    private final NavigableMap<Long, Map<String, Log>> delivered = new TreeMap<>();
+    // Hashes of recent heads, to notice a head that does not extend the chain seen so far
+    private final NavigableMap<Long, String> blockHashes = new TreeMap<>();
+    private volatile long reorgCount;
+    // While catching up after a (re)connect, pushed logs wait here so they are not delivered ahead of older ones
+    private List<Log> heldBack;
+    // The newest head seen, for the lag metric
+    private long latestHead = -1;
+
+    /**
+     * @param transport        How logs are received.
+     * @param url              An HTTP(S) URL for HTTP_POLLING or a WS(S) URL for WEBSOCKET.
+     * @param addresses        The contract addresses to receive logs from.
+     * @param topics           The accepted topic0 values (event signatures); empty for all events.
+     * @param pollIntervalMs   How often filters are polled in HTTP_POLLING mode.
+     * @param reconnectDelayMs How long to wait before reconnecting a dropped WebSocket.
+     */
+    public LogStream(Transport transport, String url, List<String> addresses, List<String> topics,
+                     long pollIntervalMs, long reconnectDelayMs) {
+        this.transport = transport;
+        this.url = url;
+        this.addresses = addresses;
+        this.topics = topics;
+        this.pollIntervalMs = pollIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.streamExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts streaming. Both handlers are called on the same single thread.
+     *
+     * @param fromBlock   The first block to deliver logs from; older blocks are better fetched with {@link LogBackfill}.
+     * @param logHandler  Receives logs in block order. Logs with removed=true were orphaned by a reorganization.
+     * @param headHandler Receives the number of every new block head.
+     */
+    public void start(long fromBlock, Consumer<Log> logHandler, LongConsumer headHandler) {
+        this.logHandler = logHandler;
+        this.headHandler = headHandler;
+        streamExecutor.execute(() -> {
+            resumeBlock = fromBlock;
+            if (transport == Transport.WEBSOCKET) {
+                connect();
+            } else {
+                startPolling(fromBlock);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        streamExecutor.execute(() -> {
+            closed = true;
+            disconnect(true);
+        });
+        streamExecutor.shutdown();
+    }
+
+    private void startPolling(long fromBlock) {
+        // A dedicated scheduler, because Web3j.shutdown() also shuts down the scheduler it was given
+        web3j = Web3j.build(Metrics.instrument(new HttpService(url)), pollIntervalMs, Executors.newSingleThreadScheduledExecutor());
+        EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(fromBlock)),
+                DefaultBlockParameterName.LATEST,
+                addresses
+        );
+        if (!topics.isEmpty()) {
+            filter.addOptionalTopics(topics.toArray(new String[0]));
+        }
+        subscriptions.add(web3j.ethLogFlowable(filter).subscribe(
+                log -> post(() -> deliver(log)),
+                throwable -> System.err.println("Error polling logs: " + throwable.getMessage())));
+        subscriptions.add(web3j.blockFlowable(false).subscribe(
+                block -> post(() -> onHead(block.getBlock().getNumber().longValue())),
+                throwable -> System.err.println("Error polling blocks: " + throwable.getMessage())));
+    }
+
+    private void connect() {
+        if (closed) {
+            return;
+        }
+        WebSocketService service = new WebSocketService(url, false);
+        try {
+            service.connect(message -> { },
+                    error -> System.err.println("WebSocket error: " + error.getMessage()),
+                    () -> post(() -> reconnect(service, "WebSocket disconnected")));
+        } catch (ConnectException e) {
+            System.err.println("Error connecting to " + url + ": " + e.getMessage());
+            scheduleReconnect();
+            return;
+        }
+        webSocketService = service;
+        web3j = Web3j.build(service);
+        backfill = new LogBackfill(web3j, addresses, topics, null, CATCH_UP_CHUNK_SIZE, 1);
+        heldBack = new ArrayList<>();
+
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("address", addresses);
+        if (!topics.isEmpty()) {
+            filter.put("topics", Collections.singletonList(topics));
+        }
+        Request<?, EthSubscribe> logsRequest = new Request<>(
+                "eth_subscribe", Arrays.asList("logs", filter), service, EthSubscribe.class);
+
+        // A failed subscription would silently stop its events while the other one keeps going, so it reconnects both
+        subscriptions.add(service.subscribe(logsRequest, "eth_unsubscribe", FullLogNotification.class).subscribe(
+                notification -> post(() -> onPushedLog(service, notification.getParams().getResult())),
+                throwable -> post(() -> reconnect(service, "Logs subscription failed: " + throwable.getMessage()))));
+        subscriptions.add(web3j.newHeadsNotifications().subscribe(
+                notification -> post(() -> onPushedHead(service, notification.getParams().getResult())),
+                throwable -> post(() -> reconnect(service, "Heads subscription failed: " + throwable.getMessage()))));
+    }
+
+    private void onPushedLog(WebSocketService service, Log log) {
+        if (service != webSocketService) {
+            return;
+        }
+        if (heldBack != null) {
+            heldBack.add(log);
+        } else {
+            deliver(log);
+        }
+    }
+
+    private void onPushedHead(WebSocketService service, NewHead newHead) {
+        if (service != webSocketService) {
+            return;
+        }
+        long head = Numeric.decodeQuantity(newHead.getNumber()).longValue();
+        latestHead = Math.max(latestHead, head);
+        try {
+            if (heldBack != null) {
+                // The first head proves the subscriptions are live, so everything before it can be fetched without a gap
+                reconcile(resumeBlock, head - 1);
+                List<Log> pushed = heldBack;
+                heldBack = null;
+                pushed.forEach(this::deliver);
+            } else {
+                long forkBlock = findForkBlock(head, newHead.getHash(), newHead.getParentHash());
+                if (forkBlock <= head) {
+                    rewind(forkBlock, "head " + head + " does not extend the recorded chain");
+                }
+            }
+        } catch (IOException e) {
+            // The catch-up after reconnecting starts over from resumeBlock, so nothing is skipped
+            System.err.println("Error fetching logs from block " + resumeBlock + ": " + e.getMessage());
+            service.close();
+            return;
+        }
+        blockHashes.put(head, newHead.getHash());
+        // Logs of the last two blocks may still be on their way, so a catch-up fetches them again
+        resumeBlock = Math.max(resumeBlock, head - 1);
+        delivered.headMap(head - RETAINED_BLOCKS).clear();
+        blockHashes.headMap(head - RETAINED_BLOCKS).clear();
+        onHead(head);
+    }
+
+    private void onHead(long head) {
+        latestHead = Math.max(latestHead, head);
+        headHandler.accept(head);
+    }
+
+    /**
+     * @return The number of chain reorganizations that made the stream fetch blocks again.
+     */
+    public long getReorgCount() {
+        return reorgCount;
+    }
+
+    /**
+     * Walks back from a new head while its ancestors differ from the recorded block hashes.
+     *
+     * @return The lowest block that changed, or head + 1 if the head extends the recorded chain.
+     */
+    private long findForkBlock(long head, String hash, String parentHash) throws IOException {
+        long forkBlock = head + 1;
+        String recorded = blockHashes.get(head);
+        if (recorded != null && !recorded.equalsIgnoreCase(hash)) {
+            forkBlock = head;
+        }
+        String canonicalHash = parentHash;
+        for (long block = head - 1; ; block--) {
+            recorded = blockHashes.get(block);
+            if (recorded == null || recorded.equalsIgnoreCase(canonicalHash)) {
+                return forkBlock;
+            }
+            forkBlock = block;
+            blockHashes.put(block, canonicalHash);
+            EthBlock response = web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.valueOf(block)), false).send();
+            if (response.hasError() || response.getBlock() == null) {
+                throw new IOException("Error fetching block " + block + ": "
+                        + (response.hasError() ? response.getError().getMessage() : "not found"));
+            }
+            canonicalHash = response.getBlock().getParentHash();
+        }
+    }
+
+    private void rewind(long forkBlock, String reason) throws IOException {
+        reorgCount++;
+        System.err.println("Chain reorganization at block " + forkBlock + " (" + reason + "); fetching blocks "
+                + forkBlock + "-" + Math.max(forkBlock, latestHead) + " again");
+        // Should the fetch fail, the catch-up after reconnecting starts at the fork point
+        resumeBlock = Math.min(resumeBlock, forkBlock);
+        reconcile(forkBlock, Math.max(forkBlock, latestHead));
+    }
+
+    /**
+     * Fetches the logs of blocks from..to and delivers those not delivered yet. Delivered logs of these blocks the
+     * node no longer returns were orphaned, and are delivered again with removed=true.
+     */
+    private void reconcile(long from, long to) throws IOException {
+        if (from > to) {
+            return;
+        }
+        Set<String> canonicalKeys = new HashSet<>();
+        // Chunked like any backfill, so a long disconnect does not turn into one oversized eth_getLogs call
+        backfill.backfill(from, to, log -> {
+            if (log.getBlockNumber().longValue() >= latestHead - RETAINED_BLOCKS) {
+                canonicalKeys.add(keyOf(log));
+            }
+            deliver(log);
+        });
+        for (Map<String, Log> logs : delivered.subMap(from, true, to, true).values()) {
+            for (Iterator<Log> iterator = logs.values().iterator(); iterator.hasNext(); ) {
+                Log log = iterator.next();
+                if (!canonicalKeys.contains(keyOf(log))) {
+                    iterator.remove();
+                    handle(removedCopy(log));
+                }
+            }
+        }
+        delivered.values().removeIf(Map::isEmpty);
+    }
+
+    private void deliver(Log log) {
+        // The polling filter never repeats a log; pushed and fetched logs can overlap
+        if (transport == Transport.WEBSOCKET) {
+            long blockNumber = log.getBlockNumber().longValue();
+            String key = keyOf(log);
+            Map<String, Log> logs = delivered.get(blockNumber);
+            if (log.isRemoved()) {
+                // Only a log that was delivered and not yet reported as removed is passed on
+                if (logs == null || logs.remove(key) == null) {
+                    return;
+                }
+                handle(log);
+                try {
+                    rewind(blockNumber, "log " + key + " was removed");
+                } catch (IOException e) {
+                    System.err.println("Error fetching logs from block " + blockNumber + ": " + e.getMessage());
+                    if (webSocketService != null) {
+                        webSocketService.close();
+                    }
+                }
+                return;
+            }
+            if (logs != null) {
+                if (logs.containsKey(key)) {
+                    return;
+                }
+                // A log from another block hash means the block was mined again; its old logs are gone
+                for (Iterator<Log> iterator = logs.values().iterator(); iterator.hasNext(); ) {
+                    Log old = iterator.next();
+                    if (!old.getBlockHash().equalsIgnoreCase(log.getBlockHash())) {
+                        iterator.remove();
+                        handle(removedCopy(old));
+                    }
+                }
+            }
+            if (blockNumber >= latestHead - RETAINED_BLOCKS) {
+                delivered.computeIfAbsent(blockNumber, number -> new LinkedHashMap<>()).put(key, log);
+            }
+        }
+        handle(log);
+    }
+
+    private void handle(Log log) {
+        if (latestHead >= 0) {
+            Metrics.recordValue(Metrics.EVENT_LAG, "LogStream", latestHead - log.getBlockNumber().longValue());
+        }
+        try {
+            logHandler.accept(log);
+        } catch (RuntimeException e) {
+            System.err.println("Error handling log: " + e.getMessage());
+        }
+    }
+
+    private static String keyOf(Log log) {
+        return log.getBlockHash() + ":" + log.getLogIndexRaw();
+    }
+
+    private static Log removedCopy(Log log) {
+        return new Log(true, log.getLogIndexRaw(), log.getTransactionIndexRaw(), log.getTransactionHash(),
+                log.getBlockHash(), log.getBlockNumberRaw(), log.getAddress(), log.getData(), log.getType(), log.getTopics());
+    }
+
+    private void post(Runnable task) {
+        try {
+            streamExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Callbacks still arriving after close() are ignored
+        }
+    }
+
+    private void reconnect(WebSocketService service, String reason) {
+        if (service != webSocketService || closed) {
+            return;
+        }
+        System.err.println(reason + "; reconnecting in " + reconnectDelayMs + " ms");
+        // The socket may already be gone, so the subscriptions are not unsubscribed; closing the service ends them
+        disconnect(false);
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (!closed) {
+            streamExecutor.schedule(this::connect, reconnectDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void disconnect(boolean unsubscribe) {
+        if (unsubscribe) {
+            subscriptions.dispose();
+        }
+        subscriptions = new CompositeDisposable();
+        if (webSocketService != null) {
+            webSocketService.close();
+            webSocketService = null;
+        }
+        if (backfill != null) {
+            backfill.close();
+            backfill = null;
+        }
+        if (web3j != null && transport == Transport.HTTP_POLLING) {
+            web3j.shutdown();
+        }
+        heldBack = null;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Run with -Deth.transport=WEBSOCKET (or ETH_TRANSPORT=WEBSOCKET) to receive pushed logs
+        Transport transport = Transport.fromConfig();
+        String url = transport == Transport.WEBSOCKET ? WS_RPC_URL : RPC_URL;
+
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+        long latestBlock = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+        web3j.shutdown();
+
+        try (LogStream stream = new LogStream(transport, url,
+                Collections.singletonList(CONTRACT_ADDRESS),
+                Collections.singletonList(EventEncoder.encode(EventListener.VALUE_UPDATED)),
+                2_000, 5_000)) {
+            stream.start(latestBlock,
+                    log -> System.out.println((log.isRemoved() ? "Removed" : "ValueUpdated") + " in block "
+                            + log.getBlockNumber() + ", tx " + log.getTransactionHash()),
+                    head -> System.out.println("New head " + head));
+
+            // Keep the process alive while events stream in
+            Thread.currentThread().join();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import io.reactivex.Flowable;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, count and error metrics for RPC calls, ABI encoding and crypto operations, and event listener lag.
+ * Measurements go to a pluggable {@link Registry}. The default registry discards everything, and while it is
+ * installed {@link #start()} does not even read the clock, so instrumented code costs next to nothing.
+ */
+public final class Metrics {
+
+    // Metric names; the tag says which RPC method, operation or listener a measurement belongs to
+    public static final String RPC = "rpc";
+    public static final String CRYPTO = "crypto";
+    public static final String ABI = "abi";
+    public static final String EVENT_LAG = "event.lag";
+
+    /**
+     * Receives measurements. For example, a Micrometer adapter:
+     * <pre>
+     * Metrics.setRegistry(new Metrics.Registry() {
+     *     public void recordTime(String name, String tag, long nanos, boolean success) {
+     *         meterRegistry.timer(name, "tag", tag, "success", String.valueOf(success)).record(nanos, TimeUnit.NANOSECONDS);
+     *     }
+     *
+     *     public void recordValue(String name, String tag, long value) {
+     *         meterRegistry.summary(name, "tag", tag).record(value);
+     *     }
+     * });
+     * </pre>
+     */
+    public interface Registry {
+        void recordTime(String name, String tag, long nanos, boolean success);
+
+        void recordValue(String name, String tag, long value);
+    }
+
+    public static final Registry NOOP = new Registry() {
+        @Override
+        public void recordTime(String name, String tag, long nanos, boolean success) {
+        }
+
+        @Override
+        public void recordValue(String name, String tag, long value) {
+        }
+    };
+
+    private static volatile Registry registry = NOOP;
+
+    private Metrics() {
+    }
+
+    public static void setRegistry(Registry newRegistry) {
+        registry = newRegistry == null ? NOOP : newRegistry;
+    }
+
+    public static Registry getRegistry() {
+        return registry;
+    }
+
+    public static boolean isEnabled() {
+        return registry != NOOP;
+    }
+
+    /**
+     * @return The start time to pass to {@link #record(String, String, long, boolean)}, or 0 when metrics are off.
+     */
+    public static long start() {
+        return registry == NOOP ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since {@link #start()}.
+     *
+     * @param name    The metric name, e.g. {@link #CRYPTO}.
+     * @param tag     The method, operation or listener measured.
+     * @param start   The value returned by {@link #start()}.
+     * @param success False if the operation failed.
+     */
+    public static void record(String name, String tag, long start, boolean success) {
+        Registry current = registry;
+        if (current != NOOP && start != 0) {
+            current.recordTime(name, tag, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Records a plain value, e.g. an event listener's lag in blocks.
+     */
+    public static void recordValue(String name, String tag, long value) {
+        Registry current = registry;
+        if (current != NOOP) {
+            current.recordValue(name, tag, value);
+        }
+    }
+
+    /**
+     * Wraps a service so every request is timed under {@link #RPC}, tagged with its JSON-RPC method.
+     * Transport failures and JSON-RPC error responses both count as errors.
+     */
+    public static Web3jService instrument(Web3jService service) {
+        return new InstrumentedService(service);
+    }
+
+    /**
+     * A log-linear histogram in the style of HdrHistogram: every power of two is split into
+     * 32 sub-buckets, so recorded values keep about 3% precision from 1 up to Long.MAX_VALUE in fixed memory.
+     */
+    public static class Histogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        public void record(long value, boolean success) {
+            long clamped = Math.max(0, value);
+            counts.incrementAndGet(bucketIndex(clamped));
+            count.increment();
+            if (!success) {
+                errors.increment();
+            }
+            max.accumulate(clamped);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        public double getErrorRate() {
+            long total = count.sum();
+            return total == 0 ? 0 : (double) errors.sum() / total;
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * @param percentile Between 0 and 100.
+         * @return The highest value of the bucket holding the given percentile; 0 if nothing was recorded.
+         */
+        public long getValueAtPercentile(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= target) {
+                    return Math.min(bucketUpperBound(i), max.get());
+                }
+            }
+            return 0;
+        }
+
+        static int bucketIndex(long value) {
+            if (value < 2 * SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return shift * SUB_BUCKETS + (int) (value >>> shift);
+        }
+
+        static long bucketUpperBound(int index) {
+            if (index < 2 * SUB_BUCKETS) {
+                return index;
+            }
+            int shift = index / SUB_BUCKETS - 1;
+            long top = index % SUB_BUCKETS + SUB_BUCKETS;
+            return ((top + 1) << shift) - 1;
+        }
+    }
+
+    /**
+     * Keeps one {@link Histogram} per metric name and tag in memory.
+     */
+    public static class HistogramRegistry implements Registry {
+        private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+        @Override
+        public void recordTime(String name, String tag, long nanos, boolean success) {
+            histogram(name, tag).record(nanos, success);
+        }
+
+        @Override
+        public void recordValue(String name, String tag, long value) {
+            histogram(name, tag).record(value, true);
+        }
+
+        /**
+         * @return The histogram of the given metric, or null if nothing was recorded for it.
+         */
+        public Histogram getHistogram(String name, String tag) {
+            return histograms.get(name + ":" + tag);
+        }
+
+        /**
+         * @return One line per metric with its count, error rate and percentiles (times in microseconds).
+         */
+        public String report() {
+            StringBuilder report = new StringBuilder();
+            for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+                Histogram histogram = entry.getValue();
+                // Lag values are in blocks; everything else was recorded in nanoseconds
+                double scale = entry.getKey().startsWith(EVENT_LAG + ":") ? 1 : 1_000;
+                report.append(String.format("%-40s count=%-8d errors=%5.1f%% p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+                        entry.getKey(), histogram.getCount(), histogram.getErrorRate() * 100,
+                        histogram.getValueAtPercentile(50) / scale, histogram.getValueAtPercentile(95) / scale,
+                        histogram.getValueAtPercentile(99) / scale, histogram.getMax() / scale));
+            }
+            return report.toString();
+        }
+
+        private Histogram histogram(String name, String tag) {
+            String key = name + ":" + tag;
+            Histogram histogram = histograms.get(key);
+            return histogram != null ? histogram : histograms.computeIfAbsent(key, k -> new Histogram());
+        }
+    }
+
+    private static class InstrumentedService implements Web3jService {
+        private final Web3jService delegate;
+
+        InstrumentedService(Web3jService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+            long start = start();
+            boolean success = false;
+            try {
+                T response = delegate.send(request, responseType);
+                success = !response.hasError();
+                return response;
+            } finally {
+                record(RPC, request.getMethod(), start, success);
+            }
+        }
+
+        @Override
+        public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+            long start = start();
+            return delegate.sendAsync(request, responseType).whenComplete((response, throwable) ->
+                    record(RPC, request.getMethod(), start, throwable == null && !response.hasError()));
+        }
+
+        @Override
+        public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+            long start = start();
+            boolean success = false;
+            try {
+                BatchResponse response = delegate.sendBatch(batchRequest);
+                success = true;
+                return response;
+            } finally {
+                record(RPC, "batch", start, success);
+            }
+        }
+
+        @Override
+        public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+            long start = start();
+            return delegate.sendBatchAsync(batchRequest).whenComplete((response, throwable) ->
+                    record(RPC, "batch", start, throwable == null));
+        }
+
+        @Override
+        public <T extends Notification<?>> Flowable<T> subscribe(Request request, String unsubscribeMethod, Class<T> responseType) {
+            return delegate.subscribe(request, unsubscribeMethod, responseType);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    public static void main(String[] args) {
+        HistogramRegistry histograms = new HistogramRegistry();
+        Metrics.setRegistry(histograms);
+
+        // Exercise the instrumented crypto paths
+        String privateKeyHex = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+        String walletAddress = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+        for (int i = 0; i < 2_000; i++) {
+            String message = "message-" + i;
+            String signature = Signature.signPrefixedMessage(privateKeyHex, message);
+            Signature.isSignatureValid(signature, message, walletAddress);
+            Wallet.getWalletAddressFromPrivateKeyHex(privateKeyHex);
+        }
+
+        System.out.print(histograms.report());
+    }
+}
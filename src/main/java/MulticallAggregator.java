@@ -0,0 +1,275 @@
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class MulticallAggregator {
+
+    private static final String RPC_URL = "RPC_URL"; // Test RPC URL, e.g., https://sepolia.optimism.io
+    private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
+
+    // Multicall3 is deployed at the same address on most EVM chains, see https://www.multicall3.com
+    public static final String MULTICALL3_ADDRESS = "0xcA11bde05977b3631167028862bE2a173976CA11";
+
+    // bytes4(keccak256("aggregate3((address,bool,bytes)[])"))
+    private static final String AGGREGATE3_SELECTOR = "0x82ad56cb";
+    private static final int WORD_BYTE_LENGTH = 32;
+
+    private final Web3j web3j;
+    private final String multicallAddress;
+
+    /**
+     * A view function call to one contract, to be executed inside a Multicall3 aggregate3 call.
+     */
+    public static class Call {
+        private final String target;
+        private final Function function;
+        private final boolean allowFailure;
+
+        /**
+         * @param target       The contract address to call.
+         * @param function     The function to call; its output parameters are used to decode the result.
+         * @param allowFailure If false, a revert of this call reverts the whole aggregate3 call.
+         */
+        public Call(String target, Function function, boolean allowFailure) {
+            this.target = target;
+            this.function = function;
+            this.allowFailure = allowFailure;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public Function getFunction() {
+            return function;
+        }
+
+        public boolean isAllowFailure() {
+            return allowFailure;
+        }
+    }
+
+    /**
+     * The outcome of one call inside an aggregate3 call.
+     */
+    public static class CallResult {
+        private final boolean success;
+        private final List<Type> values;
+        private final String returnData;
+
+        CallResult(boolean success, List<Type> values, String returnData) {
+            this.success = success;
+            this.values = values;
+            this.returnData = returnData;
+        }
+
+        /**
+         * @return True if the call succeeded and its return data decoded into the expected output types.
+         */
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * @return The decoded output values, or an empty list if the call failed.
+         */
+        public List<Type> getValues() {
+            return values;
+        }
+
+        /**
+         * @return The raw return data in hexadecimal format; for a failed call this is the revert data.
+         */
+        public String getReturnData() {
+            return returnData;
+        }
+    }
+
+    static class RawResult {
+        final boolean success;
+        final byte[] returnData;
+
+        RawResult(boolean success, byte[] returnData) {
+            this.success = success;
+            this.returnData = returnData;
+        }
+    }
+
+    public MulticallAggregator(Web3j web3j) {
+        this(web3j, MULTICALL3_ADDRESS);
+    }
+
+    public MulticallAggregator(Web3j web3j, String multicallAddress) {
+        this.web3j = web3j;
+        this.multicallAddress = multicallAddress;
+    }
+
+    /**
+     * Executes many view calls, possibly to different contracts, in a single eth_call through Multicall3.
+     *
+     * @param calls The calls to execute, in order.
+     * @param block The block all calls are executed at, so every result reflects the same state.
+     * @return One result per call, in the same order as the calls.
+     * @throws IOException If the node rejects the aggregate call or returns malformed data.
+     */
+    public List<CallResult> aggregate(List<Call> calls, DefaultBlockParameter block) throws IOException {
+        if (calls.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        EthCall response = web3j.ethCall(
+                Transaction.createEthCallTransaction(null, multicallAddress, encodeAggregate3(calls)),
+                block
+        ).send();
+        if (response.hasError()) {
+            throw new IOException("Error calling aggregate3: " + response.getError().getMessage());
+        }
+
+        List<RawResult> rawResults = decodeAggregate3(Numeric.hexStringToByteArray(response.getValue()), calls.size());
+        List<CallResult> results = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            RawResult rawResult = rawResults.get(i);
+            results.add(decodeResult(calls.get(i).getFunction(), rawResult.success, Numeric.toHexString(rawResult.returnData)));
+        }
+        return results;
+    }
+
+    private static CallResult decodeResult(Function function, boolean success, String returnData) {
+        if (!success) {
+            return new CallResult(false, Collections.emptyList(), returnData);
+        }
+        List<TypeReference<Type>> outputs = function.getOutputParameters();
+        if (outputs.isEmpty()) {
+            return new CallResult(true, Collections.emptyList(), returnData);
+        }
+        try {
+            List<Type> values = FunctionReturnDecoder.decode(returnData, outputs);
+            // A call to an address without code succeeds with empty return data
+            return new CallResult(values.size() == outputs.size(), values, returnData);
+        } catch (RuntimeException e) {
+            return new CallResult(false, Collections.emptyList(), returnData);
+        }
+    }
+
+    /**
+     * ABI-encodes aggregate3((address target, bool allowFailure, bytes callData)[] calls).
+     */
+    static String encodeAggregate3(List<Call> calls) {
+        List<byte[]> tuples = new ArrayList<>(calls.size());
+        for (Call call : calls) {
+            byte[] callData = Numeric.hexStringToByteArray(FunctionEncoder.encode(call.getFunction()));
+            ByteArrayOutputStream tuple = new ByteArrayOutputStream();
+            writeWord(tuple, Numeric.toBigInt(call.getTarget()));
+            writeWord(tuple, call.isAllowFailure() ? BigInteger.ONE : BigInteger.ZERO);
+            // callData is the only dynamic member, so it starts right after the three head words
+            writeWord(tuple, BigInteger.valueOf(3 * WORD_BYTE_LENGTH));
+            writeBytes(tuple, callData);
+            tuples.add(tuple.toByteArray());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeWord(out, BigInteger.valueOf(WORD_BYTE_LENGTH)); // offset of the array argument
+        writeWord(out, BigInteger.valueOf(calls.size()));
+        long offset = (long) calls.size() * WORD_BYTE_LENGTH;
+        for (byte[] tuple : tuples) {
+            writeWord(out, BigInteger.valueOf(offset));
+            offset += tuple.length;
+        }
+        for (byte[] tuple : tuples) {
+            out.write(tuple, 0, tuple.length);
+        }
+        return AGGREGATE3_SELECTOR + Numeric.toHexStringNoPrefix(out.toByteArray());
+    }
+
+    /**
+     * ABI-decodes the (bool success, bytes returnData)[] returned by aggregate3.
+     */
+    static List<RawResult> decodeAggregate3(byte[] data, int expectedCount) throws IOException {
+        int arrayStart = readOffset(data, 0);
+        int count = readOffset(data, arrayStart);
+        if (count != expectedCount) {
+            throw new IOException("aggregate3 returned " + count + " results for " + expectedCount + " calls");
+        }
+        int elementsStart = arrayStart + WORD_BYTE_LENGTH;
+        List<RawResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int tupleStart = elementsStart + readOffset(data, elementsStart + i * WORD_BYTE_LENGTH);
+            boolean success = data[tupleStart + WORD_BYTE_LENGTH - 1] != 0;
+            int bytesStart = tupleStart + readOffset(data, tupleStart + WORD_BYTE_LENGTH);
+            int length = readOffset(data, bytesStart);
+            if (bytesStart + WORD_BYTE_LENGTH + length > data.length) {
+                throw new IOException("aggregate3 return data is truncated");
+            }
+            byte[] returnData = Arrays.copyOfRange(data, bytesStart + WORD_BYTE_LENGTH, bytesStart + WORD_BYTE_LENGTH + length);
+            results.add(new RawResult(success, returnData));
+        }
+        return results;
+    }
+
+    private static int readOffset(byte[] data, int position) throws IOException {
+        if (position < 0 || position + WORD_BYTE_LENGTH > data.length) {
+            throw new IOException("aggregate3 return data is truncated");
+        }
+        BigInteger value = new BigInteger(1, Arrays.copyOfRange(data, position, position + WORD_BYTE_LENGTH));
+        if (value.bitLength() > 31) {
+            throw new IOException("aggregate3 return data has an out-of-range offset");
+        }
+        return value.intValue();
+    }
+
+    private static void writeWord(ByteArrayOutputStream out, BigInteger value) {
+        byte[] word = Numeric.toBytesPadded(value, WORD_BYTE_LENGTH);
+        out.write(word, 0, word.length);
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+        writeWord(out, BigInteger.valueOf(bytes.length));
+        out.write(bytes, 0, bytes.length);
+        int padding = (WORD_BYTE_LENGTH - bytes.length % WORD_BYTE_LENGTH) % WORD_BYTE_LENGTH;
+        out.write(new byte[padding], 0, padding);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+        MulticallAggregator aggregator = new MulticallAggregator(web3j);
+
+        // Read several values in one round-trip; add calls to other contracts as needed
+        List<Call> calls = new ArrayList<>();
+        calls.add(new Call(CONTRACT_ADDRESS, new Function("getValue",
+                Collections.emptyList(),
+                Arrays.asList(new TypeReference<Uint256>() {})), true));
+        calls.add(new Call(CONTRACT_ADDRESS, new Function("missingFunction",
+                Collections.emptyList(),
+                Arrays.asList(new TypeReference<Uint256>() {})), true));
+
+        List<CallResult> results = aggregator.aggregate(calls, DefaultBlockParameterName.LATEST);
+        for (int i = 0; i < results.size(); i++) {
+            CallResult result = results.get(i);
+            String functionName = calls.get(i).getFunction().getName();
+            if (result.isSuccess()) {
+                System.out.println(functionName + " returned " + result.getValues().get(0).getValue());
+            } else {
+                System.out.println(functionName + " failed, return data: " + result.getReturnData());
+            }
+        }
+        web3j.shutdown();
+    }
+}
@@ -0,0 +1,222 @@
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NonceManager {
+
+    private static final String RPC_URL = "RPC_URL"; // Test RPC URL, e.g., https://sepolia.optimism.io
+
+    // How many times a send is retried with a fresh nonce after the node rejects the nonce
+    private static final int MAX_NONCE_RETRIES = 3;
+
+    private final Web3j web3j;
+    private final ConcurrentMap<String, SenderNonce> senders = new ConcurrentHashMap<>();
+
+    /**
+     * Signs a transaction for the given nonce and returns it as a hex string ready for eth_sendRawTransaction.
+     */
+    public interface TransactionSigner {
+        String sign(BigInteger nonce);
+    }
+
+    public NonceManager(Web3j web3j) {
+        this.web3j = web3j;
+    }
+
+    /**
+     * Hands out the next nonce for the sender. The first call fetches the PENDING transaction count
+     * from the node; later calls are served locally with an atomic increment.
+     *
+     * @param senderAddress The sender's Ethereum address.
+     * @return The nonce to use for the sender's next transaction.
+     * @throws IOException If there is an issue communicating with the Ethereum node.
+     */
+    public BigInteger nextNonce(String senderAddress) throws IOException {
+        return BigInteger.valueOf(sender(senderAddress).next());
+    }
+
+    /**
+     * Fetches the PENDING transaction count from the node again and moves the local nonce up to it.
+     * The nonce never moves backwards, because lower nonces may belong to sends still in flight.
+     *
+     * @param senderAddress The sender's Ethereum address.
+     * @throws IOException If there is an issue communicating with the Ethereum node.
+     */
+    public void resync(String senderAddress) throws IOException {
+        sender(senderAddress).resync(false);
+    }
+
+    /**
+     * Sets the local nonce to the PENDING transaction count even if that is lower, e.g. after transactions were
+     * dropped from the mempool. Only call this when no transaction of the sender is in flight.
+     *
+     * @param senderAddress The sender's Ethereum address.
+     * @throws IOException If there is an issue communicating with the Ethereum node.
+     */
+    public void reset(String senderAddress) throws IOException {
+        sender(senderAddress).resync(true);
+    }
+
+    /**
+     * Gives back a nonce whose transaction the node did not accept, so later transactions do not queue behind a gap.
+     * If it is still the latest nonce handed out the counter steps back; otherwise the next send fills the gap.
+     *
+     * @param senderAddress The sender's Ethereum address.
+     * @param nonce         A nonce returned by {@link #nextNonce(String)} that was not used.
+     */
+    public void release(String senderAddress, BigInteger nonce) {
+        sender(senderAddress).release(nonce.longValueExact());
+    }
+
+    /**
+     * Allocates a nonce, signs and sends a transaction. If the node reports that the nonce is too low or
+     * that a transaction with this nonce is already pending, the nonce is resynced and the send retried.
+     *
+     * @param senderAddress The sender's Ethereum address.
+     * @param signer        Signs the transaction for an allocated nonce.
+     * @return The node's response to the last send attempt.
+     * @throws IOException If there is an issue communicating with the Ethereum node.
+     */
+    public EthSendTransaction sendRawTransaction(String senderAddress, TransactionSigner signer) throws IOException {
+        EthSendTransaction response = null;
+        for (int attempt = 0; attempt <= MAX_NONCE_RETRIES; attempt++) {
+            BigInteger nonce = nextNonce(senderAddress);
+            try {
+                response = web3j.ethSendRawTransaction(signer.sign(nonce)).send();
+            } catch (IOException | RuntimeException e) {
+                // If the node did receive it after all, the next send with this nonce fails with a nonce error and resyncs
+                release(senderAddress, nonce);
+                throw e;
+            }
+            if (!response.hasError()) {
+                return response;
+            }
+            if (!isNonceError(response.getError())) {
+                // Rejected for another reason (funds, fee, ...), so the nonce is still unused
+                release(senderAddress, nonce);
+                return response;
+            }
+            resync(senderAddress);
+        }
+        return response;
+    }
+
+    /**
+     * @param error The JSON-RPC error returned by the node.
+     * @return True if the error means the nonce was already used and must be resynced; false otherwise.
+     */
+    public static boolean isNonceError(Response.Error error) {
+        if (error == null || error.getMessage() == null) {
+            return false;
+        }
+        String message = error.getMessage().toLowerCase(Locale.ROOT);
+        return message.contains("nonce too low") || message.contains("replacement transaction underpriced");
+    }
+
+    private SenderNonce sender(String senderAddress) {
+        return senders.computeIfAbsent(senderAddress.toLowerCase(Locale.ROOT), SenderNonce::new);
+    }
+
+    private class SenderNonce {
+        private final String address;
+        private final AtomicLong nextNonce = new AtomicLong();
+        // Nonces given back below nextNonce; they are handed out again first
+        private final ConcurrentSkipListSet<Long> released = new ConcurrentSkipListSet<>();
+        private volatile boolean synced;
+
+        SenderNonce(String address) {
+            this.address = address;
+        }
+
+        long next() throws IOException {
+            if (!synced) {
+                synchronized (this) {
+                    if (!synced) {
+                        resync(true);
+                    }
+                }
+            }
+            Long reused = released.pollFirst();
+            return reused != null ? reused : nextNonce.getAndIncrement();
+        }
+
+        void release(long nonce) {
+            if (!nextNonce.compareAndSet(nonce + 1, nonce)) {
+                released.add(nonce);
+            }
+        }
+
+        synchronized void resync(boolean allowBackwards) throws IOException {
+            EthGetTransactionCount transactionCount = web3j.ethGetTransactionCount(
+                    address, DefaultBlockParameterName.PENDING).send();
+            if (transactionCount.hasError()) {
+                throw new IOException("Error fetching nonce: " + transactionCount.getError().getMessage());
+            }
+            long pending = transactionCount.getTransactionCount().longValueExact();
+            if (allowBackwards) {
+                nextNonce.set(pending);
+                released.clear();
+            } else {
+                nextNonce.accumulateAndGet(pending, Math::max);
+                // Released nonces the node already counts were used by some other transaction
+                released.headSet(pending).clear();
+            }
+            synced = true;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // The private key of the sender's Ethereum account (keep this private and secure)
+        String privateKey = "YOUR_PRIVATE_KEY";
+        // The recipient's Ethereum address
+        String recipientAddress = "YOUR_RECIPIENT_ADDRESS";
+        // The transfer amount in Ether
+        BigDecimal amountInEther = new BigDecimal("0.001");
+
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+        NonceManager nonceManager = new NonceManager(web3j);
+        Credentials credentials = Credentials.create(privateKey);
+
+        // Chain ID and gas price are fetched once for the whole batch instead of once per transfer
+        long chainId = web3j.ethChainId().send().getChainId().longValue();
+        BigInteger gasPrice = web3j.ethGasPrice().send().getGasPrice();
+        BigInteger gasLimit = BigInteger.valueOf(21000);
+        BigInteger value = Convert.toWei(amountInEther, Convert.Unit.ETHER).toBigInteger();
+
+        // Send several transfers back to back without waiting for any of them to be mined
+        List<String> transactionHashes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            EthSendTransaction response = nonceManager.sendRawTransaction(credentials.getAddress(), nonce -> {
+                RawTransaction rawTransaction = RawTransaction.createEtherTransaction(
+                        nonce, gasPrice, gasLimit, recipientAddress, value);
+                return Numeric.toHexString(TransactionEncoder.signMessage(rawTransaction, chainId, credentials));
+            });
+            if (response.hasError()) {
+                System.err.println("Error sending transaction: " + response.getError().getMessage());
+            } else {
+                transactionHashes.add(response.getTransactionHash());
+            }
+        }
+        System.out.println("Transaction Hashes: " + transactionHashes);
+        web3j.shutdown();
+    }
+}
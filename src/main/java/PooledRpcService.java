@@ -0,0 +1,485 @@
+import io.reactivex.Flowable;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Convert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Web3jService} that spreads requests over several HTTP endpoints, so one Web3j instance built on it can be
+ * shared by the whole application instead of one instance per class on a single node.
+ * Endpoints are used round-robin through one tuned OkHttp client. Each endpoint tracks its latency and error rate
+ * as exponentially weighted moving averages, and a circuit breaker takes it out of rotation while its error rate is
+ * too high. Failed requests, including answers carrying a server-side JSON-RPC error such as a rate limit, move on to
+ * the next endpoint, and idempotent reads can be hedged: if the first endpoint
+ * has not answered within its p95 latency, the same request is also sent to another endpoint and the first answer wins.
+ */
+public class PooledRpcService implements Web3jService {
+
+    private static final String[] RPC_URLS = {"RPC_URL_1", "RPC_URL_2", "RPC_URL_3"};
+
+    // Reads whose result does not depend on which node answers first, so sending them twice is harmless
+    private static final Set<String> HEDGEABLE_METHODS = new HashSet<>(Arrays.asList(
+            "eth_call", "eth_getBalance", "eth_getCode", "eth_getStorageAt", "eth_getTransactionCount",
+            "eth_getTransactionReceipt", "eth_getTransactionByHash", "eth_getBlockByNumber", "eth_getBlockByHash",
+            "eth_getLogs", "eth_blockNumber", "eth_chainId", "eth_gasPrice", "eth_estimateGas"
+    ));
+
+    private static final double EWMA_ALPHA = 0.2;
+    private static final int LATENCY_SAMPLES = 256;
+    // A breaker opens when the error rate passes this value, once an endpoint has served enough requests to judge it
+    private static final double MAX_ERROR_RATE = 0.5;
+    private static final int MIN_REQUESTS_BEFORE_TRIP = 5;
+    // Hedged requests never wait less than this, so fast endpoints are not hedged on every small jitter
+    private static final long MIN_HEDGE_DELAY_MS = 5;
+    // Used until an endpoint has latency samples of its own
+    private static final long DEFAULT_HEDGE_DELAY_MS = 200;
+    // Asynchronous requests run on at most this many threads; beyond the queue they are rejected with an IOException
+    private static final int MAX_REQUEST_THREADS = 64;
+    private static final int MAX_QUEUED_REQUESTS = 1_024;
+
+    // JSON-RPC errors that say the node could not serve the request (resource unavailable, limit exceeded),
+    // as opposed to errors about the request itself such as a revert or a nonce that is too low
+    private static final Set<Integer> SERVER_ERROR_CODES = new HashSet<>(Arrays.asList(-32002, -32005));
+    private static final String[] SERVER_ERROR_HINTS = {
+            "rate limit", "too many requests", "capacity", "timeout", "timed out", "unavailable", "overloaded"
+    };
+    // Some nodes report reverts and other execution errors as -32603 internal error, which says nothing about the node
+    private static final int INTERNAL_ERROR_CODE = -32603;
+    private static final String[] EXECUTION_ERROR_HINTS = {
+            "revert", "execution", "out of gas", "invalid opcode", "invalid jump", "stack underflow", "gas required exceeds"
+    };
+
+    public enum BreakerState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final List<Endpoint> endpoints;
+    private final OkHttpClient httpClient;
+    private final boolean hedgingEnabled;
+    private final long breakerCooldownMs;
+    private final AtomicInteger nextEndpoint = new AtomicInteger();
+    private final ThreadPoolExecutor requestExecutor = newRequestExecutor();
+    private final ScheduledExecutorService hedgeTimer = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "pooled-rpc-hedge"));
+
+    /**
+     * A point-in-time view of an endpoint's health.
+     */
+    public static class EndpointStats {
+        private final String url;
+        private final double latencyMs;
+        private final double p95LatencyMs;
+        private final double errorRate;
+        private final BreakerState state;
+
+        EndpointStats(String url, double latencyMs, double p95LatencyMs, double errorRate, BreakerState state) {
+            this.url = url;
+            this.latencyMs = latencyMs;
+            this.p95LatencyMs = p95LatencyMs;
+            this.errorRate = errorRate;
+            this.state = state;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public double getLatencyMs() {
+            return latencyMs;
+        }
+
+        public double getP95LatencyMs() {
+            return p95LatencyMs;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public BreakerState getState() {
+            return state;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s latency=%.1fms p95=%.1fms errors=%.0f%% %s",
+                    url, latencyMs, p95LatencyMs, errorRate * 100, state);
+        }
+    }
+
+    private class Endpoint {
+        final String url;
+        final HttpService service;
+
+        // Guarded by this endpoint's monitor
+        double latencyMs;
+        double errorRate;
+        long requests;
+        final long[] latencySamples = new long[LATENCY_SAMPLES];
+        long sampleCount;
+        BreakerState state = BreakerState.CLOSED;
+        long openedAt;
+        boolean trialInFlight;
+
+        Endpoint(String url) {
+            this.url = url;
+            this.service = new HttpService(url, httpClient);
+        }
+
+        /**
+         * @return True if the endpoint may take a request now. An open breaker lets one trial request through
+         * after the cooldown; its outcome decides whether the breaker closes again.
+         */
+        synchronized boolean tryAcquire(long now) {
+            if (state == BreakerState.OPEN && now - openedAt >= breakerCooldownMs) {
+                state = BreakerState.HALF_OPEN;
+            }
+            if (state == BreakerState.HALF_OPEN) {
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            }
+            return state == BreakerState.CLOSED;
+        }
+
+        synchronized void onSuccess(long nanos) {
+            long micros = nanos / 1_000;
+            latencyMs = requests == 0 ? micros / 1_000.0 : latencyMs + EWMA_ALPHA * (micros / 1_000.0 - latencyMs);
+            latencySamples[(int) (sampleCount++ % LATENCY_SAMPLES)] = micros;
+            record(false);
+        }
+
+        synchronized void onFailure() {
+            record(true);
+        }
+
+        /**
+         * Ends a half-open trial however the request ended, so an unexpected error cannot keep the endpoint out for good.
+         */
+        synchronized void endTrial() {
+            trialInFlight = false;
+        }
+
+        private void record(boolean failed) {
+            requests++;
+            errorRate += EWMA_ALPHA * ((failed ? 1 : 0) - errorRate);
+            if (state == BreakerState.HALF_OPEN) {
+                trialInFlight = false;
+                if (failed) {
+                    open();
+                } else {
+                    state = BreakerState.CLOSED;
+                    errorRate = 0;
+                }
+            } else if (state == BreakerState.CLOSED && requests >= MIN_REQUESTS_BEFORE_TRIP && errorRate > MAX_ERROR_RATE) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = BreakerState.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+
+        synchronized double p95LatencyMs() {
+            int count = (int) Math.min(sampleCount, LATENCY_SAMPLES);
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencySamples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.95) - 1] / 1_000.0;
+        }
+
+        synchronized EndpointStats stats() {
+            return new EndpointStats(url, latencyMs, p95LatencyMs(), errorRate, state);
+        }
+    }
+
+    /**
+     * @param urls              The HTTP(S) endpoints to use.
+     * @param hedgingEnabled    Whether idempotent reads are hedged to a second endpoint after the first one's p95 latency.
+     * @param timeoutMs         The connect and read timeout of a single request.
+     * @param breakerCooldownMs How long an ejected endpoint stays out of rotation before it is tried again.
+     */
+    public PooledRpcService(List<String> urls, boolean hedgingEnabled, long timeoutMs, long breakerCooldownMs) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint URL is required");
+        }
+        this.hedgingEnabled = hedgingEnabled;
+        this.breakerCooldownMs = breakerCooldownMs;
+        // One client, and so one connection pool, shared by all endpoints; failover is done here rather than by OkHttp
+        this.httpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(32, 5, TimeUnit.MINUTES))
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(false)
+                .build();
+        List<Endpoint> list = new ArrayList<>();
+        for (String url : urls) {
+            list.add(new Endpoint(url));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        if (hedgingEnabled && endpoints.size() > 1 && HEDGEABLE_METHODS.contains(request.getMethod())) {
+            try {
+                return sendHedged(request, responseType).join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+        return sendWithFailover(endpoint -> endpoint.service.send(request, responseType), null);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        if (hedgingEnabled && endpoints.size() > 1 && HEDGEABLE_METHODS.contains(request.getMethod())) {
+            return sendHedged(request, responseType);
+        }
+        return supplyAsync(() -> sendWithFailover(endpoint -> endpoint.service.send(request, responseType), null));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return sendWithFailover(endpoint -> endpoint.service.sendBatch(batchRequest), null);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return supplyAsync(() -> sendBatch(batchRequest));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request, String unsubscribeMethod, Class<T> responseType) {
+        throw new UnsupportedOperationException("Pooled HTTP endpoints do not support subscriptions; use LogStream for pushed events");
+    }
+
+    @Override
+    public void close() throws IOException {
+        requestExecutor.shutdownNow();
+        hedgeTimer.shutdownNow();
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * @return The current health of every endpoint, in configuration order.
+     */
+    public List<EndpointStats> getEndpointStats() {
+        List<EndpointStats> stats = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            stats.add(endpoint.stats());
+        }
+        return stats;
+    }
+
+    private interface EndpointCall<T> {
+        T call(Endpoint endpoint) throws IOException;
+    }
+
+    /**
+     * Tries the endpoints in round-robin order, skipping ejected ones, until one answers without a server-side error.
+     * If every endpoint answers with one, the last such answer is returned so the caller still sees the JSON-RPC error.
+     */
+    private <T> T sendWithFailover(EndpointCall<T> call, Endpoint exclude) throws IOException {
+        IOException lastError = null;
+        T lastErrorResponse = null;
+        int start = nextEndpoint.getAndIncrement();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < endpoints.size(); i++) {
+            Endpoint endpoint = endpoints.get(Math.floorMod(start + i, endpoints.size()));
+            if (endpoint == exclude || !endpoint.tryAcquire(now)) {
+                continue;
+            }
+            long startNanos = System.nanoTime();
+            try {
+                T result = call.call(endpoint);
+                if (hasServerError(result)) {
+                    // An HTTP 200 carrying e.g. -32005 is a sick endpoint, not a healthy fast one
+                    endpoint.onFailure();
+                    lastErrorResponse = result;
+                    continue;
+                }
+                endpoint.onSuccess(System.nanoTime() - startNanos);
+                return result;
+            } catch (IOException e) {
+                endpoint.onFailure();
+                lastError = e;
+            } catch (RuntimeException e) {
+                // HttpService reports non-2xx HTTP statuses (429, 503, ...) with the unchecked ClientConnectionException;
+                // anything else unchecked (a mapping error, a bad URL, ...) moves on to the next endpoint as well
+                endpoint.onFailure();
+                lastError = e instanceof ClientConnectionException
+                        ? new IOException(e.getMessage(), e) : new IOException("Request to " + endpoint.url + " failed", e);
+            } finally {
+                endpoint.endTrial();
+            }
+        }
+        if (lastErrorResponse != null) {
+            return lastErrorResponse;
+        }
+        throw lastError != null ? lastError : new IOException("No RPC endpoint is available; all circuit breakers are open");
+    }
+
+    private static boolean hasServerError(Object result) {
+        if (result instanceof Response) {
+            Response<?> response = (Response<?>) result;
+            return response.hasError() && isServerError(response.getError());
+        }
+        if (result instanceof BatchResponse) {
+            List<? extends Response<?>> responses = ((BatchResponse) result).getResponses();
+            if (responses == null) {
+                return true;
+            }
+            for (Response<?> response : responses) {
+                if (response.hasError() && isServerError(response.getError())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isServerError(Response.Error error) {
+        String message = error.getMessage() == null ? "" : error.getMessage().toLowerCase(Locale.ROOT);
+        if (error.getCode() == INTERNAL_ERROR_CODE) {
+            return !containsAny(message, EXECUTION_ERROR_HINTS);
+        }
+        return SERVER_ERROR_CODES.contains(error.getCode()) || containsAny(message, SERVER_ERROR_HINTS);
+    }
+
+    private static boolean containsAny(String message, String[] hints) {
+        for (String hint : hints) {
+            if (message.contains(hint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T extends Response> CompletableFuture<T> sendHedged(Request request, Class<T> responseType) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Endpoint> primary = new AtomicReference<>();
+        AtomicInteger attempts = new AtomicInteger(1);
+
+        supplyAsync(() -> sendWithFailover(endpoint -> {
+            if (primary.compareAndSet(null, endpoint)) {
+                // The hedge waits for the p95 latency of the endpoint that took the request
+                double p95 = endpoint.p95LatencyMs();
+                long delayMs = p95 == 0 ? DEFAULT_HEDGE_DELAY_MS : Math.max(MIN_HEDGE_DELAY_MS, Math.round(p95));
+                hedgeTimer.schedule(() -> {
+                    if (!result.isDone()) {
+                        attempts.incrementAndGet();
+                        supplyAsync(() -> sendWithFailover(other -> other.service.send(request, responseType), endpoint))
+                                .whenComplete((response, throwable) -> settle(result, attempts, response, throwable));
+                    }
+                }, delayMs, TimeUnit.MILLISECONDS);
+            }
+            return endpoint.service.send(request, responseType);
+        }, null)).whenComplete((response, throwable) -> settle(result, attempts, response, throwable));
+        return result;
+    }
+
+    /**
+     * The first answer wins; the request only fails once every attempt has failed.
+     */
+    private static <T> void settle(CompletableFuture<T> result, AtomicInteger attempts, T response, Throwable throwable) {
+        if (throwable == null) {
+            result.complete(response);
+        } else if (attempts.decrementAndGet() == 0) {
+            result.completeExceptionally(throwable);
+        }
+    }
+
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(IOSupplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return supplier.get();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, requestExecutor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new IOException("Too many RPC requests in flight; request rejected", e));
+            return rejected;
+        }
+    }
+
+    private static ThreadPoolExecutor newRequestExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_REQUEST_THREADS, MAX_REQUEST_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS), runnable -> daemon(runnable, "pooled-rpc"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static IOException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // One pooled service, and one Web3j on top of it, for the whole application
+        PooledRpcService service = new PooledRpcService(Arrays.asList(RPC_URLS), true, 10_000, 30_000);
+        Web3j web3j = Web3j.build(service);
+
+        String address = "0x4DC2739b3De594754066357e54bfCe70167b3F99";
+        for (int i = 0; i < 20; i++) {
+            BigDecimal balance = Convert.fromWei(new BigDecimal(
+                    web3j.ethGetBalance(address, DefaultBlockParameterName.LATEST).send().getBalance()), Convert.Unit.ETHER);
+            System.out.println("Balance: " + balance + " ETH");
+        }
+        service.getEndpointStats().forEach(System.out::println);
+        web3j.shutdown();
+    }
+}
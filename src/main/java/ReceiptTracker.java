@@ -0,0 +1,317 @@
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Waits for many transactions at once instead of sleeping or polling each hash on its own thread.
+ * On every new block all pending hashes are checked with batched eth_getTransactionReceipt calls, and each
+ * transaction's future completes once its receipt is the given number of blocks deep. Transactions that stay
+ * unmined too long are reported as stuck, and transactions whose nonce was taken by another transaction fail
+ * as replaced. Deadlines are checked on a timer of their own, so a stalled node or head subscription still times
+ * transactions out, and a transaction whose lookups fail is left alone until the next head.
+ */
+public class ReceiptTracker implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL";
+
+    // Requests per JSON-RPC batch and batches on the wire at once
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_IN_FLIGHT_BATCHES = 4;
+
+    private final Web3j web3j;
+    private final JsonRpcBatcher batcher;
+    private final int confirmations;
+    private final long timeoutMs;
+    private final long stuckAfterMs;
+    private final Map<String, Tracked> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService checker;
+    private volatile Consumer<String> stuckListener = hash -> { };
+    private long lastCheckedHead = -1;
+
+    /**
+     * The reason a tracked transaction did not confirm.
+     */
+    public static class ReceiptException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        public enum Reason {
+            // No receipt before the timeout, although the node knows the transaction
+            TIMEOUT,
+            // No receipt before the timeout, and the node does not know the transaction (any more)
+            DROPPED,
+            // Another transaction from the same sender with the same nonce was mined
+            REPLACED
+        }
+
+        private final String transactionHash;
+        private final Reason reason;
+
+        ReceiptException(String transactionHash, Reason reason) {
+            super("Transaction " + transactionHash + " was not confirmed: " + reason);
+            this.transactionHash = transactionHash;
+            this.reason = reason;
+        }
+
+        public String getTransactionHash() {
+            return transactionHash;
+        }
+
+        public Reason getReason() {
+            return reason;
+        }
+    }
+
+    private static class Tracked {
+        final String hash;
+        final long startedAt = System.currentTimeMillis();
+        final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        // Filled in from eth_getTransactionByHash; needed to detect a replacement
+        String from;
+        BigInteger nonce;
+        boolean knownToNode;
+        // A receipt was seen in the last check; the transaction only waits for confirmations
+        boolean mined;
+        boolean reportedStuck;
+
+        Tracked(String hash) {
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * @param web3jService   The service used for the node, e.g. an HttpService.
+     * @param confirmations  How many blocks (including its own) must exist before a receipt counts as confirmed.
+     * @param timeoutMs      How long a transaction may stay unconfirmed before its future fails.
+     * @param stuckAfterMs   How long a transaction may stay unmined before the stuck listener is told about it.
+     * @param pollIntervalMs How often the chain head is checked for new blocks.
+     */
+    public ReceiptTracker(Web3jService web3jService, int confirmations, long timeoutMs, long stuckAfterMs, long pollIntervalMs) {
+        this.web3j = Web3j.build(web3jService);
+        this.batcher = new JsonRpcBatcher(web3jService, BATCH_SIZE, MAX_IN_FLIGHT_BATCHES);
+        this.confirmations = confirmations;
+        this.timeoutMs = timeoutMs;
+        this.stuckAfterMs = stuckAfterMs;
+        this.checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "receipt-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::pollHead, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        checker.scheduleWithFixedDelay(this::checkDeadlines, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param stuckListener Receives the hash of each transaction that has been unmined for longer than stuckAfterMs.
+     *                      The transaction stays tracked, so it can still confirm, e.g. after a fee bump.
+     */
+    public void setStuckListener(Consumer<String> stuckListener) {
+        this.stuckListener = stuckListener;
+    }
+
+    /**
+     * Starts tracking a transaction.
+     *
+     * @param transactionHash The hash returned when the transaction was sent.
+     * @return A future completed with the receipt once it is confirmed, or failed with a {@link ReceiptException}.
+     */
+    public CompletableFuture<TransactionReceipt> track(String transactionHash) {
+        return pending.computeIfAbsent(transactionHash, Tracked::new).future;
+    }
+
+    /**
+     * Checks all pending transactions against a new head, e.g. one pushed by {@link LogStream}.
+     * Heads already checked are ignored.
+     *
+     * @param blockNumber The number of the new head block.
+     */
+    public void onNewHead(long blockNumber) {
+        checker.execute(() -> check(blockNumber));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        batcher.close();
+    }
+
+    private void pollHead() {
+        try {
+            check(web3j.ethBlockNumber().send().getBlockNumber().longValue());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error polling block number: " + e.getMessage());
+        }
+    }
+
+    private void check(long head) {
+        if (head <= lastCheckedHead || pending.isEmpty()) {
+            return;
+        }
+        try {
+            checkPending(head);
+            lastCheckedHead = head;
+        } catch (RuntimeException e) {
+            // The same head is checked again on the next poll
+            System.err.println("Error checking receipts: " + e.getMessage());
+        }
+    }
+
+    private void checkPending(long head) {
+        List<Tracked> tracked = new ArrayList<>(pending.values());
+
+        // Sender nonces are read before the receipts: if a nonce is already used at this point and our receipt
+        // is still missing afterwards, another transaction took the nonce
+        Map<String, CompletableFuture<EthGetTransactionCount>> nonces = new HashMap<>();
+        for (Tracked transaction : tracked) {
+            if (transaction.from != null && !nonces.containsKey(transaction.from)) {
+                nonces.put(transaction.from, batcher.submit(
+                        web3j.ethGetTransactionCount(transaction.from, DefaultBlockParameterName.LATEST)));
+            }
+        }
+        batcher.flush();
+        Map<String, BigInteger> minedNonces = new HashMap<>();
+        nonces.forEach((from, response) -> {
+            EthGetTransactionCount count = joinQuietly(response);
+            if (count != null && !count.hasError()) {
+                minedNonces.put(from, count.getTransactionCount());
+            }
+        });
+
+        Map<Tracked, CompletableFuture<EthGetTransactionReceipt>> receipts = new HashMap<>();
+        for (Tracked transaction : tracked) {
+            receipts.put(transaction, batcher.submit(web3j.ethGetTransactionReceipt(transaction.hash)));
+        }
+        batcher.flush();
+
+        Map<Tracked, CompletableFuture<EthTransaction>> lookups = new HashMap<>();
+        for (Tracked transaction : tracked) {
+            EthGetTransactionReceipt response = joinQuietly(receipts.get(transaction));
+            if (response == null || response.hasError()) {
+                // Not knowing is not "no receipt": with the nonce already used it would look replaced
+                continue;
+            }
+            TransactionReceipt receipt = response.getTransactionReceipt().orElse(null);
+            transaction.mined = receipt != null;
+            if (receipt != null) {
+                // Receipts are fetched again every block until deep enough, so a reorg that moves them is noticed
+                if (head - receipt.getBlockNumber().longValue() + 1 >= confirmations) {
+                    complete(transaction, receipt);
+                }
+                continue;
+            }
+
+            BigInteger minedNonce = transaction.from == null ? null : minedNonces.get(transaction.from);
+            if (minedNonce != null && minedNonce.compareTo(transaction.nonce) > 0) {
+                fail(transaction, ReceiptException.Reason.REPLACED);
+            } else {
+                // Still unmined: find out whether the node knows the transaction and learn its sender and nonce
+                lookups.put(transaction, batcher.submit(web3j.ethGetTransactionByHash(transaction.hash)));
+            }
+        }
+        batcher.flush();
+
+        lookups.forEach((transaction, response) -> {
+            EthTransaction ethTransaction = joinQuietly(response);
+            if (ethTransaction == null || ethTransaction.hasError()) {
+                return;
+            }
+            Transaction details = ethTransaction.getTransaction().orElse(null);
+            transaction.knownToNode = details != null;
+            if (details != null && transaction.from == null) {
+                transaction.from = details.getFrom();
+                transaction.nonce = details.getNonce();
+            }
+        });
+    }
+
+    /**
+     * Fails transactions that stayed unconfirmed too long and reports stuck ones. Runs on a timer, not on new heads,
+     * so deadlines pass even while no head arrives.
+     */
+    private void checkDeadlines() {
+        long now = System.currentTimeMillis();
+        for (Tracked transaction : new ArrayList<>(pending.values())) {
+            if (transaction.mined) {
+                // Mined transactions only wait for confirmations, which need new heads anyway
+                continue;
+            }
+            if (now - transaction.startedAt >= timeoutMs) {
+                fail(transaction, transaction.knownToNode ? ReceiptException.Reason.TIMEOUT : ReceiptException.Reason.DROPPED);
+            } else if (!transaction.reportedStuck && now - transaction.startedAt >= stuckAfterMs) {
+                transaction.reportedStuck = true;
+                try {
+                    stuckListener.accept(transaction.hash);
+                } catch (RuntimeException e) {
+                    System.err.println("Error in stuck listener: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static <T> T joinQuietly(CompletableFuture<T> response) {
+        try {
+            return response.join();
+        } catch (RuntimeException e) {
+            System.err.println("Error fetching transaction status: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void complete(Tracked transaction, TransactionReceipt receipt) {
+        pending.remove(transaction.hash);
+        transaction.future.complete(receipt);
+    }
+
+    private void fail(Tracked transaction, ReceiptException.Reason reason) {
+        pending.remove(transaction.hash);
+        transaction.future.completeExceptionally(new ReceiptException(transaction.hash, reason));
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Transaction hashes to wait for, change to your own
+        List<String> transactionHashes = new ArrayList<>();
+        transactionHashes.add("0x0000000000000000000000000000000000000000000000000000000000000001");
+        transactionHashes.add("0x0000000000000000000000000000000000000000000000000000000000000002");
+
+        // Wait for 3 confirmations, give up after 10 minutes, and report transactions unmined after 2 minutes
+        try (ReceiptTracker tracker = new ReceiptTracker(new HttpService(RPC_URL), 3, 600_000, 120_000, 2_000)) {
+            tracker.setStuckListener(hash -> System.out.println("Transaction " + hash + " looks stuck; consider a fee bump"));
+
+            List<CompletableFuture<TransactionReceipt>> futures = new ArrayList<>();
+            for (String hash : transactionHashes) {
+                futures.add(tracker.track(hash).whenComplete((receipt, throwable) -> {
+                    if (throwable != null) {
+                        System.err.println(throwable.getMessage());
+                    } else {
+                        System.out.println("Transaction " + receipt.getTransactionHash() + " confirmed in block "
+                                + receipt.getBlockNumber() + ", status " + receipt.getStatus());
+                    }
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(throwable -> null).join();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+import org.apache.commons.lang3.StringUtils;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RecoveredSignerCache {
+
+    // The cache is split into up to this many independently locked LRU segments so concurrent callers rarely contend
+    private static final int MAX_SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache of recovered signer addresses.
+     *
+     * @param maximumSize The maximum number of entries kept; least recently used entries are evicted first.
+     * @param ttl         How long an entry stays valid after it is recovered.
+     * @param unit        The time unit of the ttl.
+     */
+    public RecoveredSignerCache(int maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        // Every segment holds at least one entry and the segment sizes add up to exactly maximumSize
+        int segmentCount = Math.min(MAX_SEGMENT_COUNT, maximumSize);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Recovers the address that signed the given prefixed message, reusing a previous recovery
+     * of the same (signature, message) pair while it is still cached.
+     *
+     * @param signature The digital signature, in hexadecimal format.
+     * @param message   The message (original message) that was signed.
+     * @return          The signer's wallet address (starting with "0x"), or null if the signature is malformed
+     *                  or no public key can be recovered. Failed recoveries are not cached.
+     */
+    public String recoverSigner(String signature, String message) {
+        if (StringUtils.isAnyBlank(signature, message)) {
+            return null;
+        }
+
+        byte[] signatureBytes = Numeric.hexStringToByteArray(signature);
+        if (signatureBytes.length != CommonConstant.SIGNATURE_BYTE_LENGTH) {
+            return null;
+        }
+        byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+
+        // The signature has a fixed length, so hashing signature || message identifies the pair unambiguously
+        byte[] keyInput = Arrays.copyOf(signatureBytes, signatureBytes.length + messageBytes.length);
+        System.arraycopy(messageBytes, 0, keyInput, signatureBytes.length, messageBytes.length);
+        CacheKey key = new CacheKey(Hash.sha3(keyInput));
+
+        Segment segment = segments[(key.hashCode() & Integer.MAX_VALUE) % segments.length];
+        long now = System.nanoTime();
+        String cached = segment.get(key, now);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        String recovered = recover(signatureBytes, messageBytes);
+        if (recovered != null) {
+            segment.put(key, new CacheEntry(recovered, now + ttlNanos));
+        }
+        return recovered;
+    }
+
+    /**
+     * Validates a given signature against the specified message and wallet address through the cache.
+     *
+     * @param signature     The digital signature to validate, in hexadecimal format.
+     * @param message       The message (original message) that was signed.
+     * @param walletAddress The wallet address expected to match the signature.
+     * @return              True if the signature is valid and corresponds to the wallet
+     *                      address; false otherwise.
+     */
+    public boolean isSignatureValid(String signature, String message, String walletAddress) {
+        if (StringUtils.isBlank(walletAddress)) {
+            return false;
+        }
+        String recovered = recoverSigner(signature, message);
+        return recovered != null && recovered.equalsIgnoreCase(walletAddress);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The share of lookups answered from the cache, or 0 if there have been none.
+     */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static String recover(byte[] signatureBytes, byte[] messageBytes) {
+        byte v = signatureBytes[CommonConstant.V_INDEX];
+        if (v < CommonConstant.V_LOWER_BOUND) {
+            v += CommonConstant.V_BASE;
+        }
+        Sign.SignatureData signatureData = new Sign.SignatureData(
+                v,
+                Arrays.copyOfRange(signatureBytes, CommonConstant.R_START_INDEX, CommonConstant.R_END_INDEX),
+                Arrays.copyOfRange(signatureBytes, CommonConstant.S_START_INDEX, CommonConstant.S_END_INDEX)
+        );
+        BigInteger publicKey;
+        try {
+            publicKey = Sign.signedPrefixedMessageToKey(messageBytes, signatureData);
+        } catch (SignatureException | IllegalArgumentException e) {
+            // web3j throws IllegalArgumentException for an r that is not the x-coordinate of a curve point
+            return null;
+        }
+        return CommonConstant.ADDRESS_PREFIX + Keys.getAddress(publicKey);
+    }
+
+    private static class CacheKey {
+        private final byte[] digest;
+        private final int hash;
+
+        CacheKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CacheKey && Arrays.equals(digest, ((CacheKey) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class CacheEntry {
+        final String address;
+        final long expiresAtNanos;
+
+        CacheEntry(String address, long expiresAtNanos) {
+            this.address = address;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private class Segment {
+        private final LinkedHashMap<CacheKey, CacheEntry> entries;
+
+        Segment(int maximumSize) {
+            // Access order turns the map into an LRU list; the eldest entry is dropped once the segment is full
+            this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                    if (size() > maximumSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized String get(CacheKey key, long now) {
+            CacheEntry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.expiresAtNanos >= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.address;
+        }
+
+        synchronized void put(CacheKey key, CacheEntry entry) {
+            entries.put(key, entry);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    public static void main(String[] args) {
+        // Define the private key and wallet address, change to your own
+        String privateKeyHex = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+        String walletAddress = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+        String message = "2778f9e5-5992-4b06-8a8f-85135d687cff";
+        String signature = Signature.signPrefixedMessage(privateKeyHex, message);
+
+        // Keep up to 100,000 recovered signers for 30 minutes
+        RecoveredSignerCache cache = new RecoveredSignerCache(100_000, 30, TimeUnit.MINUTES);
+
+        // The client re-sends the same signed challenge several times during a session
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            boolean isValid = cache.isSignatureValid(signature, message, walletAddress);
+            long micros = (System.nanoTime() - start) / 1000;
+            System.out.println("Attempt " + (i + 1) + ": valid=" + isValid + " (" + micros + " us)");
+        }
+
+        // Print the cache statistics
+        System.out.println("Hits: " + cache.hitCount() + ", misses: " + cache.missCount() + ", hit ratio: " + cache.hitRatio());
+    }
+}
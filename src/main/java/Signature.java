@@ -19,6 +19,18 @@ public class Signature {
      *                      address; false otherwise.
      */
     public static Boolean isSignatureValid(String signature, String message, String walletAddress) {
+        long start = Metrics.start();
+        boolean success = false;
+        try {
+            Boolean valid = recoverAndCompare(signature, message, walletAddress);
+            success = true;
+            return valid;
+        } finally {
+            Metrics.record(Metrics.CRYPTO, "isSignatureValid", start, success);
+        }
+    }
+
+    private static Boolean recoverAndCompare(String signature, String message, String walletAddress) {
         if (StringUtils.isAnyBlank(signature, message, walletAddress)) {
             return false;
         }
@@ -56,14 +68,22 @@ public class Signature {
      * @return              The generated signature as a hexadecimal string.
      */
     public static String signPrefixedMessage(String privateKeyHex, String message) {
-        BigInteger privateKey = new BigInteger(privateKeyHex, CommonConstant.PRIVATE_KEY_RADIX);
+        long start = Metrics.start();
+        boolean success = false;
+        try {
+            BigInteger privateKey = new BigInteger(privateKeyHex, CommonConstant.PRIVATE_KEY_RADIX);
 
-        ECKeyPair keyPair = ECKeyPair.create(privateKey);
-        Sign.SignatureData signatureData = Sign.signPrefixedMessage(message.getBytes(), keyPair);
+            ECKeyPair keyPair = ECKeyPair.create(privateKey);
+            Sign.SignatureData signatureData = Sign.signPrefixedMessage(message.getBytes(), keyPair);
 
-        return Numeric.toHexStringNoPrefix(signatureData.getR()) +
-                Numeric.toHexStringNoPrefix(signatureData.getS()) +
-                Numeric.toHexStringNoPrefix(signatureData.getV());
+            String signature = Numeric.toHexStringNoPrefix(signatureData.getR()) +
+                    Numeric.toHexStringNoPrefix(signatureData.getS()) +
+                    Numeric.toHexStringNoPrefix(signatureData.getV());
+            success = true;
+            return signature;
+        } finally {
+            Metrics.record(Metrics.CRYPTO, "signPrefixedMessage", start, success);
+        }
     }
 
     public static void main(String[] args) {
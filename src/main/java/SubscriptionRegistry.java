@@ -0,0 +1,286 @@
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Watches many contracts and events through one shared log query instead of one ethLogFlowable per contract.
+ * Every poll runs eth_getLogs with the union of all subscribed addresses and event signatures, and routes each
+ * returned log to the matching handlers through an index on (address, topic0). Subscriptions can be added and
+ * removed at any time; the change applies from the next poll without restarting polling.
+ */
+public class SubscriptionRegistry implements AutoCloseable {
+
+    private static final String RPC_URL = "RPC_URL";
+    private static final String CONTRACT_ADDRESS = "CONTRACT_ADDRESS"; // Test contract address 0x833C27F4BFB4c1Eea93c747C3f5ECcf060c1B79d
+
+    // Many providers cap the number of addresses in one log filter
+    private static final int MAX_ADDRESSES_PER_FILTER = 1000;
+    private static final String ANY_ADDRESS = "*";
+
+    private final Web3j web3j;
+    private final long maxBlocksPerPoll;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller;
+
+    // Rebuilt on every subscribe/unsubscribe and swapped in as a whole, so polls never see a half-built index
+    private volatile Map<String, Map<String, List<Subscription>>> index = Collections.emptyMap();
+    private volatile List<EthFilterTemplate> filters = Collections.emptyList();
+    private long lastPolledBlock = -1;
+
+    /**
+     * A registered handler. Call {@link #unsubscribe()} to stop receiving logs.
+     */
+    public class Subscription {
+        private final Set<String> addresses;
+        private final String topic0;
+        private final List<Set<String>> indexedTopics;
+        private final Consumer<Log> handler;
+
+        Subscription(Set<String> addresses, String topic0, List<Set<String>> indexedTopics, Consumer<Log> handler) {
+            this.addresses = addresses;
+            this.topic0 = topic0;
+            this.indexedTopics = indexedTopics;
+            this.handler = handler;
+        }
+
+        public void unsubscribe() {
+            if (subscriptions.remove(this)) {
+                rebuild();
+            }
+        }
+
+        boolean matchesIndexedTopics(List<String> topics) {
+            for (int i = 0; i < indexedTopics.size(); i++) {
+                Set<String> accepted = indexedTopics.get(i);
+                if (accepted == null) {
+                    continue;
+                }
+                if (topics.size() <= i + 1 || !accepted.contains(topics.get(i + 1).toLowerCase(Locale.ROOT))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class EthFilterTemplate {
+        final List<String> addresses;
+        final List<String> topic0s;
+
+        EthFilterTemplate(List<String> addresses, List<String> topic0s) {
+            this.addresses = addresses;
+            this.topic0s = topic0s;
+        }
+    }
+
+    /**
+     * @param web3j            The Web3j instance used for polling.
+     * @param maxBlocksPerPoll The largest block range queried in one poll, so a long pause does not produce a huge query.
+     */
+    public SubscriptionRegistry(Web3j web3j, long maxBlocksPerPoll) {
+        this.web3j = web3j;
+        this.maxBlocksPerPoll = maxBlocksPerPoll;
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "subscription-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a handler for an event emitted by the given contracts.
+     *
+     * @param addresses     The contract addresses to watch; empty to accept the event from any address.
+     * @param event         The event definition.
+     * @param indexedTopics Accepted values per indexed parameter (topics[1], topics[2], ...); a null entry or a
+     *                      shorter list accepts any value.
+     * @param handler       Receives matching logs on the polling thread.
+     * @return The subscription, which can be cancelled with {@link Subscription#unsubscribe()}.
+     */
+    public Subscription subscribe(Collection<String> addresses, Event event, List<? extends Collection<String>> indexedTopics,
+                                  Consumer<Log> handler) {
+        List<Set<String>> normalizedTopics = new ArrayList<>();
+        for (Collection<String> accepted : indexedTopics) {
+            normalizedTopics.add(accepted == null ? null : lowerCase(accepted));
+        }
+        Subscription subscription = new Subscription(lowerCase(addresses),
+                EventEncoder.encode(event).toLowerCase(Locale.ROOT), normalizedTopics, handler);
+        subscriptions.add(subscription);
+        rebuild();
+        return subscription;
+    }
+
+    /**
+     * Starts polling for new logs.
+     *
+     * @param fromBlock      The first block to query.
+     * @param pollIntervalMs How often the node is polled.
+     */
+    public void start(long fromBlock, long pollIntervalMs) {
+        lastPolledBlock = fromBlock - 1;
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (IOException | RuntimeException e) {
+                // The same range is retried on the next poll
+                System.err.println("Error polling logs: " + e.getMessage());
+            }
+        }, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+    }
+
+    private void poll() throws IOException {
+        long latest = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+        if (latest <= lastPolledBlock) {
+            return;
+        }
+        long from = lastPolledBlock + 1;
+        long to = Math.min(latest, from + maxBlocksPerPoll - 1);
+
+        // Snapshot both so a concurrent subscribe cannot mix an old filter with a new index
+        List<EthFilterTemplate> currentFilters = filters;
+        Map<String, Map<String, List<Subscription>>> currentIndex = index;
+
+        List<Log> logs = new ArrayList<>();
+        for (EthFilterTemplate template : currentFilters) {
+            EthFilter filter = new EthFilter(
+                    DefaultBlockParameter.valueOf(BigInteger.valueOf(from)),
+                    DefaultBlockParameter.valueOf(BigInteger.valueOf(to)),
+                    template.addresses
+            );
+            filter.addOptionalTopics(template.topic0s.toArray(new String[0]));
+            EthLog response = web3j.ethGetLogs(filter).send();
+            if (response.hasError()) {
+                throw new IOException("Error fetching logs: " + response.getError().getMessage());
+            }
+            for (EthLog.LogResult<?> result : response.getLogs()) {
+                logs.add((Log) result.get());
+            }
+        }
+
+        for (Log log : logs) {
+            route(log, currentIndex);
+        }
+        lastPolledBlock = to;
+    }
+
+    private static void route(Log log, Map<String, Map<String, List<Subscription>>> currentIndex) {
+        if (log.getTopics() == null || log.getTopics().isEmpty()) {
+            return;
+        }
+        String topic0 = log.getTopics().get(0).toLowerCase(Locale.ROOT);
+        deliver(log, topic0, currentIndex.get(log.getAddress().toLowerCase(Locale.ROOT)));
+        deliver(log, topic0, currentIndex.get(ANY_ADDRESS));
+    }
+
+    private static void deliver(Log log, String topic0, Map<String, List<Subscription>> byTopic) {
+        if (byTopic == null) {
+            return;
+        }
+        List<Subscription> matches = byTopic.get(topic0);
+        if (matches == null) {
+            return;
+        }
+        for (Subscription subscription : matches) {
+            if (subscription.matchesIndexedTopics(log.getTopics())) {
+                try {
+                    subscription.handler.accept(log);
+                } catch (RuntimeException e) {
+                    System.err.println("Error handling log: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized void rebuild() {
+        Map<String, Map<String, List<Subscription>>> newIndex = new HashMap<>();
+        Set<String> allAddresses = new LinkedHashSet<>();
+        Set<String> allTopic0s = new LinkedHashSet<>();
+        boolean anyAddress = false;
+        for (Subscription subscription : subscriptions) {
+            allTopic0s.add(subscription.topic0);
+            Collection<String> keys = subscription.addresses.isEmpty()
+                    ? Collections.singleton(ANY_ADDRESS) : subscription.addresses;
+            anyAddress |= subscription.addresses.isEmpty();
+            allAddresses.addAll(subscription.addresses);
+            for (String key : keys) {
+                newIndex.computeIfAbsent(key, address -> new HashMap<>())
+                        .computeIfAbsent(subscription.topic0, topic -> new ArrayList<>())
+                        .add(subscription);
+            }
+        }
+
+        // One filter covers everything unless the address list is unbounded or too long for one request
+        List<EthFilterTemplate> newFilters = new ArrayList<>();
+        List<String> topic0s = new ArrayList<>(allTopic0s);
+        if (anyAddress) {
+            newFilters.add(new EthFilterTemplate(Collections.emptyList(), topic0s));
+        } else if (!allAddresses.isEmpty()) {
+            List<String> addresses = new ArrayList<>(allAddresses);
+            for (int i = 0; i < addresses.size(); i += MAX_ADDRESSES_PER_FILTER) {
+                newFilters.add(new EthFilterTemplate(
+                        addresses.subList(i, Math.min(addresses.size(), i + MAX_ADDRESSES_PER_FILTER)), topic0s));
+            }
+        }
+
+        index = newIndex;
+        filters = newFilters;
+    }
+
+    private static Set<String> lowerCase(Collection<String> values) {
+        return values.stream().map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+        long latestBlock = web3j.ethBlockNumber().send().getBlockNumber().longValue();
+
+        try (SubscriptionRegistry registry = new SubscriptionRegistry(web3j, 2_000)) {
+            // Every ValueUpdated event of the contract
+            registry.subscribe(Collections.singletonList(CONTRACT_ADDRESS), EventListener.VALUE_UPDATED,
+                    Collections.emptyList(),
+                    log -> System.out.println("ValueUpdated in tx " + log.getTransactionHash()));
+
+            // Only updates made by one updater (the indexed `updater` parameter is topics[1])
+            String updaterTopic = "0x0000000000000000000000004dc2739b3de594754066357e54bfce70167b3f99";
+            Subscription mine = registry.subscribe(Collections.singletonList(CONTRACT_ADDRESS), EventListener.VALUE_UPDATED,
+                    Collections.singletonList(Collections.singletonList(updaterTopic)),
+                    log -> System.out.println("My update in tx " + log.getTransactionHash()));
+
+            registry.start(latestBlock, 2_000);
+            Thread.sleep(60_000);
+
+            // Subscriptions can be dropped while polling keeps running
+            mine.unsubscribe();
+            Thread.sleep(60_000);
+        }
+        web3j.shutdown();
+    }
+}
@@ -7,6 +7,7 @@ import org.web3j.protocol.core.methods.response.EthChainId;
 import org.web3j.protocol.core.methods.response.EthGasPrice;
 import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.utils.Convert;
 import org.web3j.utils.Numeric;
@@ -18,7 +19,7 @@ import java.math.BigInteger;
 public class Transfer {
 
     private static final String RPC_URL = "RPC_URL"; // Test RPC URL, e.g., https://sepolia.optimism.io
-    private static final Web3j web3j = Web3j.build(new HttpService(RPC_URL));
+    private static final Web3j web3j = Web3j.build(Metrics.instrument(new HttpService(RPC_URL)));
 
     /**
      * Retrieves the Ether balance of the given Ethereum address.
@@ -96,7 +97,10 @@ public class Transfer {
         System.out.println("Transaction Hash: " + transactionHash);
 
         // Wait for the transaction to be confirmed (you can also check manually on a blockchain explorer)
-        Thread.sleep(15000); // 15 seconds wait time
+        try (ReceiptTracker tracker = new ReceiptTracker(new HttpService(RPC_URL), 1, 120_000, 60_000, 2_000)) {
+            TransactionReceipt receipt = tracker.track(transactionHash).get();
+            System.out.println("Confirmed in block " + receipt.getBlockNumber() + ", status " + receipt.getStatus());
+        }
 
         //Balance of recipient address before transfer
         BigDecimal after = getETHBalance(recipientAddress);
@@ -31,12 +31,20 @@ public class Wallet {
      * @return The generated Ethereum wallet address (starting with "0x").
      */
     public static String getWalletAddressFromPrivateKeyHex(String privateKeyHex) {
-        // Convert the private key from hexadecimal format to BigInteger
-        BigInteger privateKey = new BigInteger(privateKeyHex, CommonConstant.PRIVATE_KEY_RADIX);
-        // Create an ECKeyPair object (contains both private and public keys)
-        ECKeyPair keyPair = ECKeyPair.create(privateKey);
-        // Generate a wallet address from the public key and return it with "0x" prefix
-        return CommonConstant.ADDRESS_PREFIX + Keys.getAddress(keyPair.getPublicKey());
+        long start = Metrics.start();
+        boolean success = false;
+        try {
+            // Convert the private key from hexadecimal format to BigInteger
+            BigInteger privateKey = new BigInteger(privateKeyHex, CommonConstant.PRIVATE_KEY_RADIX);
+            // Create an ECKeyPair object (contains both private and public keys)
+            ECKeyPair keyPair = ECKeyPair.create(privateKey);
+            // Generate a wallet address from the public key and return it with "0x" prefix
+            String address = CommonConstant.ADDRESS_PREFIX + Keys.getAddress(keyPair.getPublicKey());
+            success = true;
+            return address;
+        } finally {
+            Metrics.record(Metrics.CRYPTO, "getWalletAddressFromPrivateKeyHex", start, success);
+        }
     }
 
     /**
@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchSignatureVerifierTest {
+
+    private static final String PRIVATE_KEY = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+    private static final String WALLET_ADDRESS = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+
+    // r = 5 is not the x-coordinate of a curve point, so web3j throws instead of failing the recovery
+    private static final String INVALID_R_SIGNATURE = "0x" + repeat("00", 31) + "05" + repeat("00", 31) + "01" + "1b";
+    private static final String ZERO_SIGNATURE = "0x" + repeat("00", 65);
+
+    @Test
+    void recordsFalseForSignaturesWeb3jRejectsByThrowing() {
+        List<BatchSignatureVerifier.SignatureCheck> checks = new ArrayList<>();
+        // Enough checks to split into several fork-join tasks, with the bad ones in the middle of one
+        for (int i = 0; i < 100; i++) {
+            String message = "login-challenge-" + i;
+            String signature = Signature.signPrefixedMessage(PRIVATE_KEY, message);
+            if (i == 40) {
+                signature = INVALID_R_SIGNATURE;
+            } else if (i == 41) {
+                signature = ZERO_SIGNATURE;
+            }
+            checks.add(new BatchSignatureVerifier.SignatureCheck(signature, message, WALLET_ADDRESS));
+        }
+
+        boolean[] expected = new boolean[checks.size()];
+        Arrays.fill(expected, true);
+        expected[40] = false;
+        expected[41] = false;
+        assertArrayEquals(expected, BatchSignatureVerifier.verifyAll(checks));
+    }
+
+    @Test
+    void matchesTheSingleCallPathOnAddressFormat() {
+        String signature = Signature.signPrefixedMessage(PRIVATE_KEY, "hello");
+        String[] addresses = {
+                WALLET_ADDRESS, WALLET_ADDRESS.substring(2), "0X" + WALLET_ADDRESS.substring(2).toUpperCase(),
+                WALLET_ADDRESS + "00", WALLET_ADDRESS.substring(0, 41) + "g"
+        };
+        for (String address : addresses) {
+            assertEquals(Signature.isSignatureValid(signature, "hello", address),
+                    BatchSignatureVerifier.verify(new BatchSignatureVerifier.SignatureCheck(signature, "hello", address)),
+                    address);
+        }
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
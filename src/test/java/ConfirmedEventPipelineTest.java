@@ -0,0 +1,73 @@
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.MissingBackpressureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers what happens before any log is confirmed, so the pipeline never needs to reach a node.
+ */
+class ConfirmedEventPipelineTest {
+
+    private static final String CONTRACT = "0x833c27f4bfb4c1eea93c747c3f5eccf060c1b79d";
+    // Far enough out that no head poll runs during a test
+    private static final long HEAD_POLL_INTERVAL_MS = 60_000;
+
+    private final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+    private final ConfirmedEventPipeline pipeline = new ConfirmedEventPipeline(
+            Web3j.build(new HttpService("http://localhost:1")), 12, 64, 1, 10, event -> { });
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void tooManyPendingLogsReachTheErrorHandler() throws Exception {
+        pipeline.start(logs(5), 100, 3, ConfirmedEventPipeline.OverflowPolicy.ERROR, HEAD_POLL_INTERVAL_MS, errors::add);
+
+        Throwable error = errors.poll(5, TimeUnit.SECONDS);
+        assertTrue(error instanceof MissingBackpressureException, String.valueOf(error));
+        assertNull(errors.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void droppingPoliciesKeepThePendingLogsBounded() throws Exception {
+        pipeline.start(logs(5), 100, 3, ConfirmedEventPipeline.OverflowPolicy.DROP_OLDEST, HEAD_POLL_INTERVAL_MS, errors::add);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pipeline.getOverflowedCount() < 2) {
+            assertTrue(System.currentTimeMillis() < deadline, "Logs were not dropped");
+            Thread.sleep(10);
+        }
+        assertEquals(2, pipeline.getOverflowedCount());
+        assertNull(errors.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void failingSourceReachesTheErrorHandler() throws Exception {
+        IOException failure = new IOException("connection lost");
+        pipeline.start(Flowable.error(failure), 100, 3, ConfirmedEventPipeline.OverflowPolicy.ERROR, HEAD_POLL_INTERVAL_MS,
+                errors::add);
+
+        assertEquals(failure, errors.poll(5, TimeUnit.SECONDS));
+    }
+
+    private static Flowable<Log> logs(int count) {
+        return Flowable.range(0, count).map(i -> new Log(false, "0x0", "0x0", "0x" + Integer.toHexString(i),
+                "0x" + Integer.toHexString(100 + i), "0x" + Integer.toHexString(100 + i), CONTRACT, "0x", null,
+                Collections.emptyList()));
+    }
+}
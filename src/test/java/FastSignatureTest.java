@@ -0,0 +1,34 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FastSignatureTest {
+
+    private static final String PRIVATE_KEY = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+    private static final String WALLET_ADDRESS = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+
+    @Test
+    void acceptsAValidSignature() {
+        String signature = Signature.signPrefixedMessage(PRIVATE_KEY, "hello");
+        assertTrue(FastSignature.isSignatureValid(signature, "hello", WALLET_ADDRESS));
+        assertFalse(FastSignature.isSignatureValid(signature, "hello!", WALLET_ADDRESS));
+    }
+
+    @Test
+    void returnsFalseWhenRIsNotACurvePoint() {
+        // web3j's recovery throws IllegalArgumentException ("Invalid point compression") for these
+        String invalidR = "0x" + repeat("00", 31) + "05" + repeat("00", 31) + "01" + "1b";
+        String allZero = "0x" + repeat("00", 65);
+        assertFalse(FastSignature.isSignatureValid(invalidR, "hello", WALLET_ADDRESS));
+        assertFalse(FastSignature.isSignatureValid(allZero, "hello", WALLET_ADDRESS));
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,120 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs JsonRpcBatcher against an in-process HTTP node that answers every batch in reverse order and leaves out the
+ * response to one address.
+ */
+class JsonRpcBatcherTest {
+
+    // The node never answers eth_getBalance for this address
+    private static final String UNANSWERED = "0x00000000000000000000000000000000000000ff";
+
+    static {
+        // Without TCP_NODELAY the JDK server's separate header and body writes stall on delayed ACKs (about 40 ms)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer server;
+    private JsonRpcBatcher batcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        String url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        batcher = new JsonRpcBatcher(new HttpService(url), 3, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+        server.stop(0);
+    }
+
+    @Test
+    void batchesRequestsAndMatchesReorderedResponsesById() {
+        List<CompletableFuture<BigInteger>> balances = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            balances.add(batcher.getBalance(address(i), DefaultBlockParameterName.LATEST));
+        }
+        batcher.flush();
+
+        for (int i = 1; i <= 7; i++) {
+            assertEquals(BigInteger.valueOf(i), balances.get(i - 1).join());
+        }
+        // Batches are sent in order but may reach the node in any order
+        List<Integer> sizes = new ArrayList<>(batchSizes);
+        Collections.sort(sizes);
+        assertEquals(Arrays.asList(1, 3, 3), sizes);
+    }
+
+    @Test
+    void failsOnlyTheRequestWithoutAResponse() {
+        CompletableFuture<BigInteger> first = batcher.getBalance(address(1), DefaultBlockParameterName.LATEST);
+        CompletableFuture<BigInteger> unanswered = batcher.getBalance(UNANSWERED, DefaultBlockParameterName.LATEST);
+        CompletableFuture<BigInteger> last = batcher.getBalance(address(2), DefaultBlockParameterName.LATEST);
+
+        assertEquals(BigInteger.ONE, first.join());
+        assertEquals(BigInteger.valueOf(2), last.join());
+        CompletionException error = assertThrows(CompletionException.class, unanswered::join);
+        assertTrue(error.getCause() instanceof IOException, String.valueOf(error.getCause()));
+        assertTrue(error.getCause().getMessage().startsWith("No response for request id"), error.getCause().getMessage());
+        assertEquals(Collections.singletonList(3), batchSizes);
+    }
+
+    private static String address(int balance) {
+        return String.format("0x%040x", balance);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode requests = objectMapper.readTree(exchange.getRequestBody());
+        batchSizes.add(requests.size());
+        ArrayNode responses = objectMapper.createArrayNode();
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            JsonNode request = requests.get(i);
+            String address = request.get("params").get(0).asText();
+            if (UNANSWERED.equals(address)) {
+                continue;
+            }
+            ObjectNode response = responses.addObject();
+            response.put("jsonrpc", "2.0");
+            response.set("id", request.get("id"));
+            // Each test address encodes its own balance
+            response.put("result", "0x" + new BigInteger(address.substring(2), 16).toString(16));
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(responses);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
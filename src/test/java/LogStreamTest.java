@@ -0,0 +1,346 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs LogStream in WebSocket mode against an in-process node that pushes whatever the test tells it to and answers
+ * eth_getLogs and eth_getBlockByNumber from a small chain the test can reorganize.
+ */
+class LogStreamTest {
+
+    private static final String CONTRACT = "0x833c27f4bfb4c1eea93c747c3f5eccf060c1b79d";
+
+    private StubNode node;
+    private LogStream stream;
+    private final BlockingQueue<String> logs = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Long> heads = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        node = new StubNode();
+        node.start();
+        node.started.await();
+        stream = new LogStream(LogStream.Transport.WEBSOCKET, "ws://localhost:" + node.getPort(),
+                Collections.singletonList(CONTRACT), Collections.emptyList(), 1_000, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stream.close();
+        // Stopping the node before the stream has unsubscribed and hung up would only add noise to the output
+        node.awaitDisconnected();
+        node.stop(1_000);
+    }
+
+    @Test
+    void catchesUpOnConnectAndThenOnlyListens() throws Exception {
+        node.addLog(10, "a");
+        node.addLog(11, "b");
+        start(10);
+
+        node.pushHead(12);
+        assertEquals("log 10 a", nextLog());
+        assertEquals("log 11 b", nextLog());
+        assertEquals(12, nextHead());
+
+        node.pushLog(node.addLog(12, "c"));
+        assertEquals("log 12 c", nextLog());
+        node.pushHead(13);
+        node.pushHead(14);
+        assertEquals(13, nextHead());
+        assertEquals(14, nextHead());
+
+        // Only the catch-up after connecting used eth_getLogs
+        assertEquals(1, node.count("eth_getLogs"));
+        assertNull(logs.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void catchesUpMissedLogsAfterReconnect() throws Exception {
+        start(10);
+        node.pushHead(11);
+        assertEquals(11, nextHead());
+        node.pushLog(node.addLog(11, "a"));
+        assertEquals("log 11 a", nextLog());
+        node.pushHead(12);
+        assertEquals(12, nextHead());
+
+        // Mined while the stream is disconnected, so only the catch-up can deliver them
+        node.dropConnection();
+        node.addLog(12, "b");
+        node.addLog(13, "c");
+        node.awaitSubscriptions(4);
+
+        node.pushHead(14);
+        assertEquals("log 12 b", nextLog());
+        assertEquals("log 13 c", nextLog());
+        assertEquals(14, nextHead());
+        // 11 a was fetched again by the catch-up but not delivered twice
+        assertNull(logs.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void removedLogFetchesTheForkedBlocksAgain() throws Exception {
+        start(10);
+        node.pushHead(11);
+        assertEquals(11, nextHead());
+        ObjectNode orphaned = node.addLog(11, "a");
+        node.pushLog(orphaned);
+        assertEquals("log 11 a", nextLog());
+        node.pushHead(12);
+        assertEquals(12, nextHead());
+
+        // Block 11 is mined again with a different transaction, and the node reports the old log as removed
+        node.reorganize(11);
+        node.addLog(11, "x");
+        orphaned.put("removed", true);
+        node.pushLog(orphaned);
+
+        assertEquals("removed 11 a", nextLog());
+        assertEquals("log 11 x", nextLog());
+        assertEquals(1, stream.getReorgCount());
+        assertNull(logs.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void headOffTheRecordedChainRemovesOrphanedLogs() throws Exception {
+        start(10);
+        node.pushHead(11);
+        assertEquals(11, nextHead());
+        node.pushLog(node.addLog(11, "a"));
+        assertEquals("log 11 a", nextLog());
+        node.pushHead(12);
+        assertEquals(12, nextHead());
+
+        // Blocks 11 and 12 are replaced without a removed log ever being pushed; the new 11 has no logs
+        node.reorganize(11);
+        node.addLog(12, "y");
+        node.pushHead(13);
+
+        List<String> delivered = new ArrayList<>();
+        delivered.add(nextLog());
+        delivered.add(nextLog());
+        assertTrue(delivered.contains("log 12 y"), delivered.toString());
+        assertTrue(delivered.contains("removed 11 a"), delivered.toString());
+        assertEquals(13, nextHead());
+        assertEquals(1, stream.getReorgCount());
+    }
+
+    private void start(long fromBlock) throws InterruptedException {
+        stream.start(fromBlock,
+                log -> logs.add((log.isRemoved() ? "removed " : "log ") + log.getBlockNumber() + " "
+                        + log.getTransactionHash().substring(2)),
+                heads::add);
+        node.awaitSubscriptions(2);
+    }
+
+    private String nextLog() throws InterruptedException {
+        String log = logs.poll(5, TimeUnit.SECONDS);
+        assertTrue(log != null, "No log delivered");
+        return log;
+    }
+
+    private long nextHead() throws InterruptedException {
+        Long head = heads.poll(5, TimeUnit.SECONDS);
+        assertTrue(head != null, "No head delivered");
+        return head;
+    }
+
+    /**
+     * A chain of blocks whose hashes carry a fork number, so reorganizing from a block changes it and every later hash.
+     */
+    private static class StubNode extends WebSocketServer {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        private final AtomicInteger subscriptions = new AtomicInteger();
+        private final AtomicInteger openConnections = new AtomicInteger();
+        private final Map<Long, Integer> forks = new ConcurrentHashMap<>();
+        private final List<ObjectNode> chainLogs = Collections.synchronizedList(new ArrayList<>());
+        private volatile WebSocket connection;
+        private volatile String logsSubscription;
+        private volatile String headsSubscription;
+
+        StubNode() {
+            super(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        }
+
+        String hash(long block) {
+            return "0x" + Long.toHexString(block) + "f" + forks.getOrDefault(block, 0);
+        }
+
+        /**
+         * Replaces this block and every later one; their logs are gone from the chain.
+         */
+        void reorganize(long fromBlock) {
+            for (long block = fromBlock; block < fromBlock + 16; block++) {
+                forks.merge(block, 1, Integer::sum);
+            }
+            chainLogs.removeIf(log -> Long.decode(log.get("blockNumber").asText()) >= fromBlock);
+        }
+
+        ObjectNode addLog(long block, String transaction) {
+            long index = chainLogs.stream().filter(log -> Long.decode(log.get("blockNumber").asText()) == block).count();
+            ObjectNode log = objectMapper.createObjectNode();
+            log.put("address", CONTRACT);
+            log.put("blockHash", hash(block));
+            log.put("blockNumber", "0x" + Long.toHexString(block));
+            log.put("logIndex", "0x" + Long.toHexString(index));
+            log.put("transactionIndex", "0x0");
+            log.put("transactionHash", "0x" + transaction);
+            log.put("data", "0x");
+            log.putArray("topics");
+            log.put("removed", false);
+            chainLogs.add(log);
+            return log;
+        }
+
+        void pushLog(ObjectNode log) {
+            push(logsSubscription, log.deepCopy());
+        }
+
+        void pushHead(long block) {
+            ObjectNode head = objectMapper.createObjectNode();
+            head.put("number", "0x" + Long.toHexString(block));
+            head.put("hash", hash(block));
+            head.put("parentHash", hash(block - 1));
+            push(headsSubscription, head);
+        }
+
+        void dropConnection() {
+            connection.close();
+        }
+
+        int count(String method) {
+            AtomicInteger count = counts.get(method);
+            return count == null ? 0 : count.get();
+        }
+
+        void awaitSubscriptions(int total) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (subscriptions.get() < total) {
+                assertTrue(System.currentTimeMillis() < deadline, "Stream did not subscribe");
+                Thread.sleep(10);
+            }
+        }
+
+        void awaitDisconnected() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (openConnections.get() > 0) {
+                assertTrue(System.currentTimeMillis() < deadline, "Stream did not disconnect");
+                Thread.sleep(10);
+            }
+        }
+
+        private void push(String subscription, JsonNode result) {
+            ObjectNode notification = objectMapper.createObjectNode();
+            notification.put("jsonrpc", "2.0");
+            notification.put("method", "eth_subscription");
+            ObjectNode params = notification.putObject("params");
+            params.put("subscription", subscription);
+            params.set("result", result);
+            connection.send(notification.toString());
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket, ClientHandshake handshake) {
+            connection = webSocket;
+            openConnections.incrementAndGet();
+        }
+
+        @Override
+        public void onClose(WebSocket webSocket, int code, String reason, boolean remote) {
+            openConnections.decrementAndGet();
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Exception e) {
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String message) {
+            try {
+                JsonNode request = objectMapper.readTree(message);
+                String method = request.get("method").asText();
+                counts.computeIfAbsent(method, name -> new AtomicInteger()).incrementAndGet();
+                ObjectNode response = objectMapper.createObjectNode();
+                response.put("jsonrpc", "2.0");
+                response.set("id", request.get("id"));
+                JsonNode params = request.get("params");
+                switch (method) {
+                    case "eth_subscribe":
+                        String id = "0x" + Integer.toHexString(subscriptions.get() + 1);
+                        if ("logs".equals(params.get(0).asText())) {
+                            logsSubscription = id;
+                        } else {
+                            headsSubscription = id;
+                        }
+                        response.put("result", id);
+                        break;
+                    case "eth_unsubscribe":
+                        response.put("result", true);
+                        break;
+                    case "eth_getLogs":
+                        long from = Long.decode(params.get(0).get("fromBlock").asText());
+                        long to = Long.decode(params.get(0).get("toBlock").asText());
+                        ArrayNode result = response.putArray("result");
+                        synchronized (chainLogs) {
+                            for (ObjectNode log : chainLogs) {
+                                long block = Long.decode(log.get("blockNumber").asText());
+                                if (block >= from && block <= to) {
+                                    result.add(log.deepCopy());
+                                }
+                            }
+                        }
+                        break;
+                    case "eth_getBlockByNumber":
+                        long number = Long.decode(params.get(0).asText());
+                        ObjectNode block = response.putObject("result");
+                        block.put("number", "0x" + Long.toHexString(number));
+                        block.put("hash", hash(number));
+                        block.put("parentHash", hash(number - 1));
+                        break;
+                    default:
+                        ObjectNode error = response.putObject("error");
+                        error.put("code", -32601);
+                        error.put("message", "the method " + method + " does not exist/is not available");
+                }
+                webSocket.send(response.toString());
+                if ("eth_subscribe".equals(method)) {
+                    subscriptions.incrementAndGet();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
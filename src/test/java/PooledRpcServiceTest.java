@@ -0,0 +1,202 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs PooledRpcService against in-process HTTP nodes whose behavior each test switches between healthy and sick.
+ */
+class PooledRpcServiceTest {
+
+    private static final String ADDRESS = "0x4DC2739b3De594754066357e54bfCe70167b3F99";
+    // Long enough for a round of requests to finish inside one cooldown
+    private static final long COOLDOWN_MS = 1_000;
+
+    static {
+        // Without TCP_NODELAY the JDK server's separate header and body writes stall on delayed ACKs (about 40 ms)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private enum Mode {
+        HEALTHY, HTTP_503, RATE_LIMITED, REVERT_AS_INTERNAL_ERROR
+    }
+
+    private final List<StubEndpoint> endpoints = new ArrayList<>();
+    private PooledRpcService service;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        endpoints.forEach(endpoint -> endpoint.server.stop(0));
+    }
+
+    @Test
+    void failsOverAndEjectsAnEndpointAnsweringWithHttpErrors() throws Exception {
+        StubEndpoint sick = endpoint(Mode.HTTP_503);
+        StubEndpoint healthy = endpoint(Mode.HEALTHY);
+        Web3j web3j = pool(60_000, sick.url, healthy.url);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BigInteger.valueOf(16), web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send().getBalance());
+        }
+        assertEquals(PooledRpcService.BreakerState.OPEN, state(0));
+        assertEquals(PooledRpcService.BreakerState.CLOSED, state(1));
+    }
+
+    @Test
+    void countsRateLimitsAnsweredWithHttp200AsFailures() throws Exception {
+        StubEndpoint limited = endpoint(Mode.RATE_LIMITED);
+        StubEndpoint healthy = endpoint(Mode.HEALTHY);
+        Web3j web3j = pool(60_000, limited.url, healthy.url);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BigInteger.valueOf(16), web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send().getBalance());
+        }
+        assertEquals(PooledRpcService.BreakerState.OPEN, state(0));
+    }
+
+    @Test
+    void keepsAnEndpointThatReportsRevertsAsInternalErrors() throws Exception {
+        StubEndpoint node = endpoint(Mode.REVERT_AS_INTERNAL_ERROR);
+        Web3j web3j = pool(60_000, node.url);
+
+        for (int i = 0; i < 20; i++) {
+            EthCall response = web3j.ethCall(Transaction.createEthCallTransaction(ADDRESS, ADDRESS, "0x"),
+                    DefaultBlockParameterName.LATEST).send();
+            assertTrue(response.hasError());
+            assertEquals("execution reverted", response.getError().getMessage());
+        }
+        assertEquals(PooledRpcService.BreakerState.CLOSED, state(0));
+        assertEquals(20, node.requests.get());
+    }
+
+    @Test
+    void halfOpenTrialClosesTheBreakerOnceTheEndpointRecovers() throws Exception {
+        StubEndpoint flaky = endpoint(Mode.HTTP_503);
+        StubEndpoint healthy = endpoint(Mode.HEALTHY);
+        Web3j web3j = pool(COOLDOWN_MS, flaky.url, healthy.url);
+
+        for (int i = 0; i < 20; i++) {
+            web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send();
+        }
+        assertEquals(PooledRpcService.BreakerState.OPEN, state(0));
+        int requestsWhileOpen = flaky.requests.get();
+
+        // Still failing after the cooldown: the one trial request opens the breaker again
+        Thread.sleep(COOLDOWN_MS + 100);
+        for (int i = 0; i < 10; i++) {
+            web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send();
+        }
+        assertEquals(requestsWhileOpen + 1, flaky.requests.get());
+        assertEquals(PooledRpcService.BreakerState.OPEN, state(0));
+
+        flaky.mode = Mode.HEALTHY;
+        Thread.sleep(COOLDOWN_MS + 100);
+        for (int i = 0; i < 10; i++) {
+            web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send();
+        }
+        assertEquals(PooledRpcService.BreakerState.CLOSED, state(0));
+        assertTrue(flaky.requests.get() > requestsWhileOpen + 2);
+    }
+
+    @Test
+    void unexpectedExceptionsFailOverAndEndTheTrial() throws Exception {
+        StubEndpoint healthy = endpoint(Mode.HEALTHY);
+        // OkHttp rejects this URL with an IllegalArgumentException on every request
+        Web3j web3j = pool(COOLDOWN_MS, "not a url", healthy.url);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BigInteger.valueOf(16), web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send().getBalance());
+        }
+        assertEquals(PooledRpcService.BreakerState.OPEN, state(0));
+
+        // The failed trial must leave the breaker open, not half open with a trial that never ends
+        Thread.sleep(COOLDOWN_MS + 100);
+        for (int i = 0; i < 10; i++) {
+            web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send();
+        }
+        assertEquals(PooledRpcService.BreakerState.OPEN, state(0));
+        Thread.sleep(COOLDOWN_MS + 100);
+        web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send();
+        web3j.ethGetBalance(ADDRESS, DefaultBlockParameterName.LATEST).send();
+        assertEquals(PooledRpcService.BreakerState.OPEN, state(0));
+    }
+
+    private Web3j pool(long breakerCooldownMs, String... urls) {
+        service = new PooledRpcService(Arrays.asList(urls), false, 2_000, breakerCooldownMs);
+        return Web3j.build(service);
+    }
+
+    private PooledRpcService.BreakerState state(int endpoint) {
+        return service.getEndpointStats().get(endpoint).getState();
+    }
+
+    private StubEndpoint endpoint(Mode mode) throws IOException {
+        StubEndpoint endpoint = new StubEndpoint(mode);
+        endpoints.add(endpoint);
+        return endpoint;
+    }
+
+    private static class StubEndpoint {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        final HttpServer server;
+        final String url;
+        final AtomicInteger requests = new AtomicInteger();
+        volatile Mode mode;
+
+        StubEndpoint(Mode mode) throws IOException {
+            this.mode = mode;
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+            url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            if (mode == Mode.HTTP_503) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("jsonrpc", "2.0");
+            response.set("id", request.get("id"));
+            if (mode == Mode.HEALTHY) {
+                response.put("result", "0x10");
+            } else {
+                ObjectNode error = response.putObject("error");
+                error.put("code", mode == Mode.RATE_LIMITED ? -32005 : -32603);
+                error.put("message", mode == Mode.RATE_LIMITED ? "request rate limit exceeded" : "execution reverted");
+            }
+            byte[] bytes = objectMapper.writeValueAsBytes(response);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecoveredSignerCacheTest {
+
+    private static final String PRIVATE_KEY = "ad6bfebb055780013c24afdd167cceb96ef89ddf9e4eb8615a99e573531407b5";
+    private static final String WALLET_ADDRESS = "0x4dc2739b3de594754066357e54bfce70167b3f99";
+
+    @Test
+    void neverHoldsMoreThanTheMaximumSize() {
+        for (int maximumSize : new int[]{1, 3, 17, 40}) {
+            RecoveredSignerCache cache = new RecoveredSignerCache(maximumSize, 1, TimeUnit.MINUTES);
+            for (int i = 0; i < 100; i++) {
+                String message = "message " + i;
+                assertTrue(cache.isSignatureValid(Signature.signPrefixedMessage(PRIVATE_KEY, message), message, WALLET_ADDRESS));
+            }
+            assertTrue(cache.size() <= maximumSize, maximumSize + " -> " + cache.size());
+            assertEquals(100 - cache.size(), cache.evictionCount());
+        }
+    }
+
+    @Test
+    void doesNotCacheAnRThatIsNotACurvePoint() {
+        RecoveredSignerCache cache = new RecoveredSignerCache(10, 1, TimeUnit.MINUTES);
+        // web3j's recovery throws IllegalArgumentException ("Invalid point compression") for this signature
+        String signature = "0x" + repeat("00", 31) + "05" + repeat("00", 31) + "01" + "1b";
+
+        assertNull(cache.recoverSigner(signature, "hello"));
+        assertFalse(cache.isSignatureValid(signature, "hello", WALLET_ADDRESS));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.missCount());
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}